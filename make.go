@@ -54,6 +54,7 @@ const (
 	commonDep         = "github.com/getgauge/common"
 	targetDir         = "target"
 	jarExt            = ".jar"
+	jfrEventsClass    = "com/thoughtworks/gauge/jfr/JfrRunnerEvents.class"
 )
 
 var BUILD_DIR_BIN = filepath.Join(BUILD_DIR, bin)
@@ -325,6 +326,7 @@ var test = flag.Bool("test", false, "Runs tests")
 var allPlatforms = flag.Bool("all-platforms", false, "Compiles or creates distributables for all platforms windows, linux, darwin both x86 and x86_64")
 var binDir = flag.String("bin-dir", "", "Specifies OS_PLATFORM specific binaries to install when cross compiling")
 var profile = flag.String("profile", "", "Specify profile to use while building")
+var allowNoJfr = flag.Bool("allow-no-jfr", false, "Creates distributables from a jar compiled without the JFR events, on a JDK older than 11")
 
 var (
 	platformEnvs = []map[string]string{
@@ -397,6 +399,9 @@ func createGaugeDistro(forAllPlatforms bool) {
 }
 
 func createDistro() {
+	if !*allowNoJfr {
+		checkJfrEvents()
+	}
 	packageName := fmt.Sprintf("%s-%s-%s.%s", gaugeJava, getGaugeJavaVersion(), getGOOS(), getArch())
 	distroDir := filepath.Join(deploy, packageName)
 	copyGaugeJavaFiles(distroDir)
@@ -404,6 +409,22 @@ func createDistro() {
 	os.RemoveAll(distroDir)
 }
 
+// The JFR events are only compiled by JDK 11 and later, see the jfr profile in pom.xml
+func checkJfrEvents() {
+	jar := filepath.Join(targetDir, gaugeJava+"-"+getGaugeJavaVersion()+jarExt)
+	reader, err := zip.OpenReader(jar)
+	if err != nil {
+		panic(err)
+	}
+	defer reader.Close()
+	for _, file := range reader.File {
+		if file.Name == jfrEventsClass {
+			return
+		}
+	}
+	panic(fmt.Errorf("%s has no JFR events: compile it with JDK 11 or later, or pass --allow-no-jfr", jar))
+}
+
 func runCommand(command string, arg ...string) {
 	cmd := exec.Command(command, arg...)
 	cmd.Stdout = os.Stdout
@@ -0,0 +1,76 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares invoking a step through {@link MethodInvoker} with invoking it through {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Build with {@code mvn -Pbenchmark test-compile} and run with
+ * {@code java -cp target/jmh-classes:target/classes:<test classpath> org.openjdk.jmh.Main MethodInvokerBenchmark}.
+ * Run with {@code -jvmArgsAppend -Dsun.reflect.inflationThreshold=2147483647} to measure the native accessor that
+ * reflection uses for the first calls of a method.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark {
+    private final Steps steps = new Steps();
+    private final Object[] args = {3, "apples"};
+    private MethodInvoker invoker;
+    private Method method;
+
+    @Setup
+    public void setUp() throws Exception {
+        method = Steps.class.getMethod("step", int.class, String.class);
+        invoker = MethodInvoker.of(method);
+    }
+
+    @Benchmark
+    public Object methodInvoker() throws Exception {
+        return invoker.invoke(steps, args);
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return method.invoke(steps, args);
+    }
+
+    public static class Steps {
+        private int total;
+
+        public void step(int count, String what) {
+            total += count + what.length();
+        }
+    }
+}
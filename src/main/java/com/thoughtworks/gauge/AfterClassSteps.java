@@ -37,7 +37,7 @@ import java.lang.annotation.Target;
 public @interface AfterClassSteps {
 
     /**
-     * @return Array of tags to filter which steps the hook executes after based on the tags in the current scenario and spec.
+     * @return Array of tags or tag expressions (see {@link Operator}) to filter which steps the hook executes after based on the tags in the current scenario and spec.
      */
     String[] tags() default {};
 
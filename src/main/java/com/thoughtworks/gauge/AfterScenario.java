@@ -36,7 +36,7 @@ import java.lang.annotation.Target;
 public @interface AfterScenario {
 
     /**
-     * @return Array of tags to filter which scenarios the hook runs after.
+     * @return Array of tags or tag expressions (see {@link Operator}) to filter which scenarios the hook runs after.
      */
     String[] tags() default {};
 
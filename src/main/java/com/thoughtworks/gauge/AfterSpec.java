@@ -37,7 +37,7 @@ import java.lang.annotation.Target;
 public @interface AfterSpec {
 
     /**
-     * @return Array of tags to filter which specifications the hook runs after.
+     * @return Array of tags or tag expressions (see {@link Operator}) to filter which specifications the hook runs after.
      */
     String[] tags() default {};
 
@@ -36,7 +36,7 @@ import java.lang.annotation.Target;
 public @interface BeforeSpec {
 
     /**
-     * @return Array of tags to filter which specifications the hook runs before.
+     * @return Array of tags or tag expressions (see {@link Operator}) to filter which specifications the hook runs before.
      */
     String[] tags() default {};
 
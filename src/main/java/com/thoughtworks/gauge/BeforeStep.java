@@ -37,7 +37,7 @@ import java.lang.annotation.Target;
 public @interface BeforeStep {
 
     /**
-     * @return Array of tags to filter which steps the hook runs before.
+     * @return Array of tags or tag expressions (see {@link Operator}) to filter which steps the hook runs before.
      */
     String[] tags() default {};
 
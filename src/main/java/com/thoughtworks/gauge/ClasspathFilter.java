@@ -0,0 +1,198 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decides which classpath entries and class files are scanned for steps, hooks and extension points. Built once from
+ * {@link GaugeConstant#PACKAGE_TO_SCAN} and shared by {@link ClasspathHelper} and the classpath scanner.
+ * <p>
+ * When packages to scan are given, only classes in those packages and their sub packages are scanned. Class names are
+ * matched against a prefix tree of package names, without allocating. Otherwise all classes are scanned, except the
+ * jars of well known third party libraries, which can not contain steps. Classes are never skipped by package name
+ * alone, as project code may well live in packages such as org.apache or kotlin.
+ * </p>
+ */
+public final class ClasspathFilter {
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final Set<String> THIRD_PARTY_JARS = new HashSet<>(Arrays.asList(
+            "guava", "failureaccess", "listenablefuture", "protobuf-java", "gson", "reflections", "javassist",
+            "javaparser-core", "jsr305", "checker-qual", "checker-compat-qual", "error_prone_annotations",
+            "j2objc-annotations", "animal-sniffer-annotations", "junit", "hamcrest-core", "hamcrest-library",
+            "hamcrest", "mockito-all", "mockito-core", "assertj-core", "objenesis", "opentest4j", "apiguardian-api",
+            "commons-io", "commons-lang", "commons-lang3", "commons-codec", "commons-logging", "commons-collections",
+            "commons-exec", "httpclient", "httpcore", "httpmime", "okhttp", "okio", "kotlin-stdlib", "byte-buddy",
+            "byte-buddy-agent", "logback-classic", "logback-core"));
+    private static final List<String> THIRD_PARTY_JAR_FAMILIES = Arrays.asList("selenium-", "jackson-", "netty-", "slf4j-");
+
+    private static volatile ClasspathFilter fromEnvironment;
+
+    private final List<String> packagesToScan;
+    private final PackageTree packages;
+
+    ClasspathFilter(String packagesToScan) {
+        List<String> packageNames = new ArrayList<>();
+        if (packagesToScan != null) {
+            for (String packageName : packagesToScan.split(",")) {
+                if (!packageName.trim().isEmpty()) {
+                    packageNames.add(packageName.trim());
+                }
+            }
+        }
+        this.packagesToScan = Collections.unmodifiableList(packageNames);
+        this.packages = new PackageTree(packageNames);
+    }
+
+    /**
+     * @return the filter for the {@link GaugeConstant#PACKAGE_TO_SCAN} of this process
+     */
+    public static ClasspathFilter fromEnvironment() {
+        ClasspathFilter filter = fromEnvironment;
+        if (filter == null) {
+            filter = new ClasspathFilter(System.getenv(GaugeConstant.PACKAGE_TO_SCAN));
+            fromEnvironment = filter;
+        }
+        return filter;
+    }
+
+    /**
+     * @return the packages to scan, or an empty list if the whole classpath is scanned
+     */
+    public List<String> getPackagesToScan() {
+        return packagesToScan;
+    }
+
+    /**
+     * @param name - path or name of a class file, eg. com/example/Steps.class or com.example.Steps.class
+     * @return true if the class file should be scanned
+     */
+    public boolean includesClassFile(String name) {
+        if (!name.endsWith(CLASS_FILE_SUFFIX)) {
+            return false;
+        }
+        return packagesToScan.isEmpty() || packages.containsClass(name, name.length() - CLASS_FILE_SUFFIX.length());
+    }
+
+    /**
+     * @param url - a classpath entry
+     * @return false for jars of well known third party libraries, when the whole classpath is scanned
+     */
+    public boolean includesClasspathEntry(URL url) {
+        if (!packagesToScan.isEmpty()) {
+            return true;
+        }
+        String fileName = new File(url.getPath()).getName();
+        if (!fileName.endsWith(".jar")) {
+            return true;
+        }
+        String artifact = artifactName(fileName);
+        if (THIRD_PARTY_JARS.contains(artifact)) {
+            return false;
+        }
+        for (String family : THIRD_PARTY_JAR_FAMILIES) {
+            if (artifact.startsWith(family)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // guava-24.0-jre.jar is guava
+    private static String artifactName(String jarName) {
+        String name = jarName.substring(0, jarName.length() - ".jar".length());
+        for (int i = 0; i < name.length() - 1; i++) {
+            if (name.charAt(i) == '-' && Character.isDigit(name.charAt(i + 1))) {
+                return name.substring(0, i);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Prefix tree over the characters of package names, where / and . are the same separator.
+     */
+    private static final class PackageTree {
+        private final Node root = new Node();
+
+        PackageTree(List<String> packageNames) {
+            for (String packageName : packageNames) {
+                Node node = root;
+                String normalized = packageName.endsWith(".*") ? packageName.substring(0, packageName.length() - 2) : packageName;
+                for (int i = 0; i < normalized.length(); i++) {
+                    node = node.childOrAdd(separatorToDot(normalized.charAt(i)));
+                }
+                node.isPackage = true;
+            }
+        }
+
+        // True if the class named by the first length characters is in one of the packages or their sub packages.
+        boolean containsClass(String name, int length) {
+            Node node = root;
+            if (node.isPackage) {
+                return true;
+            }
+            for (int i = 0; i < length; i++) {
+                char c = separatorToDot(name.charAt(i));
+                if (node.isPackage && c == '.') {
+                    return true;
+                }
+                node = node.child(c);
+                if (node == null) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private static char separatorToDot(char c) {
+            return c == '/' ? '.' : c;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean isPackage;
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrAdd(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.thoughtworks.gauge;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Gives the information about the current execution at runtime - spec, scenario, step that is running.
@@ -26,6 +27,9 @@ public class ExecutionContext {
     private Specification currentSpecification;
     private Scenario currentScenario;
     private StepDetails currentStep;
+    private Supplier<Specification> specificationSupplier;
+    private Supplier<Scenario> scenarioSupplier;
+    private Supplier<StepDetails> stepSupplier;
 
     public ExecutionContext(Specification specification, Scenario scenario, StepDetails stepDetails) {
         this.currentSpecification = specification;
@@ -33,6 +37,15 @@ public class ExecutionContext {
         this.currentStep = stepDetails;
     }
 
+    /**
+     * Creates a context that gets the spec, scenario and step from the suppliers when they are first asked for.
+     */
+    public ExecutionContext(Supplier<Specification> specification, Supplier<Scenario> scenario, Supplier<StepDetails> stepDetails) {
+        this.specificationSupplier = specification;
+        this.scenarioSupplier = scenario;
+        this.stepSupplier = stepDetails;
+    }
+
     public ExecutionContext() {
         this.currentSpecification = new Specification();
         this.currentScenario = new Scenario();
@@ -44,6 +57,10 @@ public class ExecutionContext {
      * Returns null in BeforeSuite and AfterSuite levels as no spec is executing then.
      */
     public Specification getCurrentSpecification() {
+        if (specificationSupplier != null) {
+            currentSpecification = specificationSupplier.get();
+            specificationSupplier = null;
+        }
         return currentSpecification;
     }
 
@@ -52,6 +69,10 @@ public class ExecutionContext {
      * Returns null in BeforeSuite, AfterSuite, BeforeSpec levels as no scenario is executing then.
      */
     public Scenario getCurrentScenario() {
+        if (scenarioSupplier != null) {
+            currentScenario = scenarioSupplier.get();
+            scenarioSupplier = null;
+        }
         return currentScenario;
     }
 
@@ -60,6 +81,10 @@ public class ExecutionContext {
      * Returns null in BeforeSuite, AfterSuite, BeforeSpec, AfterSpec, BeforeScenario levels as no step is executing then.
      */
     public StepDetails getCurrentStep() {
+        if (stepSupplier != null) {
+            currentStep = stepSupplier.get();
+            stepSupplier = null;
+        }
         return currentStep;
     }
 
@@ -67,8 +92,8 @@ public class ExecutionContext {
      * @return - All the valid tags (including scenario and spec tags) at the execution level.
      */
     public List<String> getAllTags() {
-        HashSet<String> specTags = new HashSet<>(currentSpecification.getTags());
-        specTags.addAll(currentScenario.getTags());
+        HashSet<String> specTags = new HashSet<>(getCurrentSpecification().getTags());
+        specTags.addAll(getCurrentScenario().getTags());
         return new ArrayList<>(specTags);
     }
 }
@@ -64,4 +64,22 @@ public class Gauge {
     static List<byte[]> getScreenshots() {
         return screenshots.get();
     }
+
+    /**
+     * Runs the action with the given lists as the messages and screenshots of the current thread, restoring the
+     * previous ones afterwards. Threads of a pool would otherwise share, or lose, the lists of the thread they were
+     * created from.
+     */
+    static void collectOutput(Runnable action, List<String> actionMessages, List<byte[]> actionScreenshots) {
+        List<String> previousMessages = messages.get();
+        List<byte[]> previousScreenshots = screenshots.get();
+        messages.set(actionMessages);
+        screenshots.set(actionScreenshots);
+        try {
+            action.run();
+        } finally {
+            messages.set(previousMessages);
+            screenshots.set(previousScreenshots);
+        }
+    }
 }
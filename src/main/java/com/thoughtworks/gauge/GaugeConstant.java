@@ -18,8 +18,11 @@ package com.thoughtworks.gauge;
 public class GaugeConstant {
     public static final String GAUGE_INTERNAL_PORT = "GAUGE_INTERNAL_PORT";
     public static final String GAUGE_API_PORT = "GAUGE_API_PORT";
+    public static final String GAUGE_PROJECT_ROOT = "GAUGE_PROJECT_ROOT";
     public static final String SCREENSHOT_ENABLED = "screenshot_on_failure";
     public static final String STEP_ANNOTATION_QUALIFIER = "com.thoughtworks.gauge.Step";
     public static final String GAUGE_DEBUG_OPTS_ENV = "GAUGE_DEBUG_OPTS";
     public static final String PACKAGE_TO_SCAN = "package_to_scan";
+    public static final String MAX_MESSAGE_SIZE = "gauge_max_message_size";
+    public static final String CLASSPATH_SCAN_CACHE = "gauge_classpath_scan_cache";
 }
@@ -27,6 +27,7 @@ import com.thoughtworks.gauge.registry.StepRegistry;
 import com.thoughtworks.gauge.scan.ClasspathScanner;
 import com.thoughtworks.gauge.scan.CustomClassInitializerScanner;
 import com.thoughtworks.gauge.scan.HooksScanner;
+import com.thoughtworks.gauge.scan.StepTimingListenerScanner;
 import com.thoughtworks.gauge.scan.StepsScanner;
 import com.thoughtworks.gauge.screenshot.CustomScreenshotScanner;
 
@@ -77,7 +78,8 @@ public class GaugeRuntime {
 
     private static void connectSynchronously(final int gaugeInternalPort, final int gaugeApiPort, StepRegistry stepRegistry) {
         final GaugeConnector connector = makeConnection(gaugeInternalPort, gaugeApiPort);
-        new ClasspathScanner().scan(new StepsScanner(connector, stepRegistry), new HooksScanner(), new CustomScreenshotScanner(), new CustomClassInitializerScanner());
+        new ClasspathScanner().scan(new StepsScanner(connector, stepRegistry), new HooksScanner(), new CustomScreenshotScanner(), new CustomClassInitializerScanner(),
+                new StepTimingListenerScanner());
         Thread thread = new Thread(() -> dispatchMessages(connector, stepRegistry));
         startThread(thread);
     }
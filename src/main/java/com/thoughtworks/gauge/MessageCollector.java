@@ -28,6 +28,24 @@ public class MessageCollector {
         return addPendingMessages(result, messages);
     }
 
+    /**
+     * Adds the pending messages to the result being built, without copying them to a result of their own.
+     */
+    public void addPendingMessagesTo(Spec.ProtoExecutionResult.Builder result) {
+        List<String> messages = getMessages();
+        if (!messages.isEmpty()) {
+            result.addAllMessage(messages);
+            clear();
+        }
+    }
+
+    /**
+     * @return true if messages were written since they were last added to a result.
+     */
+    public boolean hasPendingMessages() {
+        return !getMessages().isEmpty();
+    }
+
     Spec.ProtoExecutionResult addPendingMessages(Spec.ProtoExecutionResult result, List<String> messages) {
         Spec.ProtoExecutionResult.Builder builder = Spec.ProtoExecutionResult.newBuilder(result);
         builder.addAllMessage(messages);
@@ -17,6 +17,11 @@ package com.thoughtworks.gauge;
 
 /**
  * Operator for performing Tag aggregation mechanism in Execution Hooks.
+ * <p>
+ * Each tag given to a hook can also be a tag expression in the syntax of Gauge's {@code --tags} option, such as
+ * {@code "smoke & !(slow | wip)"}; see {@link com.thoughtworks.gauge.tag.TagExpression}. The operator combines the
+ * given tags and expressions.
+ * </p>
  */
 public enum Operator {
     AND, OR
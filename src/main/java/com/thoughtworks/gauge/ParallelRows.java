@@ -0,0 +1,88 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Runs a consumer over the rows of a table on a pool of threads. Each row writes its messages and screenshots to lists
+ * of its own; once all rows are done they are added to those of the calling step in row order, so the report reads the
+ * same whatever order the rows ran in.
+ */
+final class ParallelRows {
+    private final List<TableRow> rows;
+    private final List<RowOutput> outputs;
+
+    ParallelRows(List<TableRow> rows) {
+        this.rows = new ArrayList<>(rows);
+        this.outputs = new ArrayList<>(this.rows.size());
+    }
+
+    void forEach(Consumer<TableRow> rowConsumer, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("Parallelism must be at least 1, was %d.", parallelism));
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, Math.max(rows.size(), 1)));
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(rows.size());
+            for (TableRow row : rows) {
+                RowOutput output = new RowOutput();
+                outputs.add(output);
+                tasks.add(pool.submit(() -> output.run(rowConsumer, row)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        report();
+    }
+
+    private void report() {
+        SortedMap<Integer, Throwable> failures = new TreeMap<>();
+        for (int i = 0; i < outputs.size(); i++) {
+            RowOutput output = outputs.get(i);
+            Gauge.getMessages().addAll(output.messages);
+            Gauge.getScreenshots().addAll(output.screenshots);
+            if (output.failure != null) {
+                failures.put(i, output.failure);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new RowExecutionException(rows.size(), failures);
+        }
+    }
+
+    private static final class RowOutput {
+        private final List<String> messages = new ArrayList<>();
+        private final List<byte[]> screenshots = new ArrayList<>();
+        private Throwable failure;
+
+        void run(Consumer<TableRow> rowConsumer, TableRow row) {
+            try {
+                Gauge.collectOutput(() -> rowConsumer.accept(row), messages, screenshots);
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Thrown by {@link Table#parallelForEach(java.util.function.Consumer, int)} when the consumer failed for one or more
+ * rows. The message lists every failed row; the failure of the first one is the cause and the others are suppressed.
+ */
+public class RowExecutionException extends RuntimeException {
+    private final SortedMap<Integer, Throwable> failures;
+
+    public RowExecutionException(int rowCount, SortedMap<Integer, Throwable> failures) {
+        super(message(rowCount, failures), failures.get(failures.firstKey()));
+        this.failures = Collections.unmodifiableSortedMap(failures);
+        for (Throwable failure : failures.values()) {
+            if (failure != getCause()) {
+                addSuppressed(failure);
+            }
+        }
+    }
+
+    /**
+     * @return the failure of each failed row by the index of the row in the table, in row order.
+     */
+    public SortedMap<Integer, Throwable> getFailures() {
+        return failures;
+    }
+
+    private static String message(int rowCount, SortedMap<Integer, Throwable> failures) {
+        StringBuilder message = new StringBuilder(String.format("%d of %d rows failed.", failures.size(), rowCount));
+        for (Map.Entry<Integer, Throwable> failure : failures.entrySet()) {
+            message.append(System.lineSeparator()).append(String.format("Row %d: %s", failure.getKey(), failure.getValue()));
+        }
+        return message.toString();
+    }
+}
@@ -29,6 +29,24 @@ public class ScreenshotCollector {
         return addPendingScreenshot(result, screenshots);
     }
 
+    /**
+     * Adds the pending screenshots to the result being built, without copying them to a result of their own.
+     */
+    public void addPendingScreenshotTo(Spec.ProtoExecutionResult.Builder result) {
+        List<byte[]> screenshots = getScreenshots();
+        for (byte[] screenshot : screenshots) {
+            result.addScreenshots(ByteString.copyFrom(screenshot));
+        }
+        clear();
+    }
+
+    /**
+     * @return true if screenshots were captured since they were last added to a result.
+     */
+    public boolean hasPendingScreenshots() {
+        return !getScreenshots().isEmpty();
+    }
+
     Spec.ProtoExecutionResult addPendingScreenshot(Spec.ProtoExecutionResult result, List<byte[]> screenshots) {
         Spec.ProtoExecutionResult.Builder builder = Spec.ProtoExecutionResult.newBuilder(result);
         for (byte[] screenshot : screenshots) {
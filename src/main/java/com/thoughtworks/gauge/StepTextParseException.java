@@ -12,16 +12,10 @@
 //
 // You can redistribute it and/or modify it under the terms of either license.
 // We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
 
-package com.thoughtworks.gauge.execution;
-
-import gauge.messages.Spec;
-
-public interface ExecutionStage {
-
-    void setNextStage(ExecutionStage stage);
-
-    Spec.ProtoExecutionResult execute(Spec.ProtoExecutionResult result);
-
-    Spec.ProtoExecutionResult executeNext(Spec.ProtoExecutionResult stageResult);
+public class StepTextParseException extends RuntimeException {
+    public StepTextParseException(String error) {
+        super(error);
+    }
 }
@@ -0,0 +1,175 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns step text into a {@link StepValue} the same way Gauge core does, so that step values do not need a round
+ * trip to the Gauge API.
+ * <p>
+ * Static parameters are quoted ("admin") and dynamic parameters are angle bracketed (&lt;user&gt;); both are replaced
+ * with {} in the step text. A backslash escapes the next character, where \t, \n and \r stand for the whitespace
+ * characters. Curly braces are reserved outside parameters.
+ * </p>
+ * <p>
+ * Only step text of the supported grammar ({@link #isSupported(String)}) is known to parse the same as in Gauge core,
+ * which is checked against responses of core in StepTextConformanceTest.
+ * </p>
+ */
+final class StepTextParser {
+    static final String PARAMETER_PLACEHOLDER = "{}";
+    static final String TABLE_PARAMETER = "table";
+
+    private static final char QUOTE = '"';
+    private static final char ESCAPE = '\\';
+    private static final char DYNAMIC_PARAM_START = '<';
+    private static final char DYNAMIC_PARAM_END = '>';
+    private static final char SPECIAL_PARAM_SEPARATOR = ':';
+
+    private enum State { DEFAULT, IN_QUOTES, IN_DYNAMIC_PARAM }
+
+    private StepTextParser() {
+    }
+
+    /**
+     * @return true if the text is plain text with quoted static parameters and angle bracketed dynamic parameters,
+     *         without escapes, reserved or control characters, angle brackets in static parameters, quotes or angle
+     *         brackets in dynamic parameters, empty dynamic parameters or special parameters (&lt;table:file.csv&gt;).
+     */
+    static boolean isSupported(String text) {
+        State state = State.DEFAULT;
+        int argumentLength = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ESCAPE || c == '{' || c == '}' || Character.isISOControl(c)) {
+                return false;
+            }
+            if (state == State.IN_QUOTES) {
+                if (c == DYNAMIC_PARAM_START || c == DYNAMIC_PARAM_END) {
+                    return false;
+                }
+                state = c == QUOTE ? State.DEFAULT : state;
+            } else if (state == State.IN_DYNAMIC_PARAM) {
+                if (c == QUOTE || c == DYNAMIC_PARAM_START || c == SPECIAL_PARAM_SEPARATOR) {
+                    return false;
+                }
+                if (c == DYNAMIC_PARAM_END) {
+                    if (argumentLength == 0) {
+                        return false;
+                    }
+                    state = State.DEFAULT;
+                }
+                argumentLength++;
+            } else if (c == QUOTE) {
+                state = State.IN_QUOTES;
+            } else if (c == DYNAMIC_PARAM_START) {
+                state = State.IN_DYNAMIC_PARAM;
+                argumentLength = 0;
+            } else if (c == DYNAMIC_PARAM_END) {
+                return false;
+            }
+        }
+        return state == State.DEFAULT && !text.trim().isEmpty();
+    }
+
+    static StepValue parse(String text, boolean hasInlineTable) {
+        StringBuilder stepText = new StringBuilder(text.length());
+        StringBuilder argument = new StringBuilder();
+        List<String> parameters = new ArrayList<>();
+        State state = State.DEFAULT;
+        boolean inEscape = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            StringBuilder current = state == State.DEFAULT ? stepText : argument;
+            if (inEscape) {
+                current.append(unescape(c));
+                inEscape = false;
+            } else if (c == ESCAPE) {
+                inEscape = true;
+            } else if (state == State.IN_QUOTES) {
+                if (c == QUOTE) {
+                    state = endParameter(stepText, argument, parameters);
+                } else {
+                    argument.append(c);
+                }
+            } else if (state == State.IN_DYNAMIC_PARAM) {
+                if (c == DYNAMIC_PARAM_END) {
+                    state = endParameter(stepText, argument, parameters);
+                } else {
+                    argument.append(c);
+                }
+            } else if (c == QUOTE) {
+                state = State.IN_QUOTES;
+            } else if (c == DYNAMIC_PARAM_START) {
+                state = State.IN_DYNAMIC_PARAM;
+            } else if (c == '{' || c == '}') {
+                throw new StepTextParseException(String.format("'%s' is a reserved character and cannot be used in a step", c));
+            } else {
+                stepText.append(c);
+            }
+        }
+
+        if (state == State.IN_QUOTES) {
+            throw new StepTextParseException("String not terminated");
+        }
+        if (state == State.IN_DYNAMIC_PARAM) {
+            throw new StepTextParseException("Dynamic parameter not terminated");
+        }
+
+        String value = stepText.toString().trim();
+        if (hasInlineTable) {
+            value += " " + PARAMETER_PLACEHOLDER;
+            parameters.add(TABLE_PARAMETER);
+        }
+        return new StepValue(value, parameterize(value, parameters), parameters);
+    }
+
+    private static State endParameter(StringBuilder stepText, StringBuilder argument, List<String> parameters) {
+        stepText.append(PARAMETER_PLACEHOLDER);
+        parameters.add(argument.toString());
+        argument.setLength(0);
+        return State.DEFAULT;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            default:
+                return c;
+        }
+    }
+
+    private static String parameterize(String stepText, List<String> parameters) {
+        StringBuilder parameterized = new StringBuilder(stepText.length());
+        int from = 0;
+        for (String parameter : parameters) {
+            int placeholder = stepText.indexOf(PARAMETER_PLACEHOLDER, from);
+            if (placeholder < 0) {
+                break;
+            }
+            parameterized.append(stepText, from, placeholder).append('<').append(parameter).append('>');
+            from = placeholder + PARAMETER_PLACEHOLDER.length();
+        }
+        return parameterized.append(stepText, from, stepText.length()).toString();
+    }
+}
@@ -41,6 +41,42 @@ public class StepValue {
         return new StepValue(protoStepValue.getStepValue(), protoStepValue.getParameterizedStepValue(), protoStepValue.getParametersList());
     }
 
+    /**
+     * Tells whether the step text only uses the part of the step grammar that {@link #parse(String)} is known to parse
+     * exactly like Gauge core: plain text with quoted static parameters and angle bracketed dynamic parameters. Escapes,
+     * reserved characters, angle brackets or quotes inside parameters and special parameters such as
+     * &lt;table:file.csv&gt; are outside it, and have to be parsed by Gauge core.
+     *
+     * @param stepText - step text, eg. login as "admin" with &lt;password&gt;
+     * @return true if the step text can be parsed locally
+     */
+    public static boolean canParse(String stepText) {
+        return StepTextParser.isSupported(stepText);
+    }
+
+    /**
+     * Parses step text locally, the same way Gauge core does.
+     *
+     * @param stepText - step text, eg. login as "admin" with &lt;password&gt;
+     * @return the step value, with parameters replaced by {}
+     * @throws StepTextParseException if the step text is malformed
+     */
+    public static StepValue parse(String stepText) {
+        return parse(stepText, false);
+    }
+
+    /**
+     * Parses step text locally, the same way Gauge core does.
+     *
+     * @param stepText       - step text, eg. login as "admin" with &lt;password&gt;
+     * @param hasInlineTable - set to true if the step has an inline table parameter
+     * @return the step value, with parameters replaced by {}
+     * @throws StepTextParseException if the step text is malformed
+     */
+    public static StepValue parse(String stepText, boolean hasInlineTable) {
+        return StepTextParser.parse(stepText, hasInlineTable);
+    }
+
     public String getStepText() {
         return stepText;
     }
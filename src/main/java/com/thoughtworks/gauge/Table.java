@@ -15,47 +15,102 @@
 
 package com.thoughtworks.gauge;
 
-import com.google.common.base.Function;
-import com.google.common.base.Joiner;
-import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
+import gauge.messages.Spec;
 import org.apache.commons.lang.StringUtils;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Custom Table structure used as parameter in steps.
+ * <p>
+ * A table received from Gauge reads its cells straight from the message it came in: its rows are views over that
+ * message rather than copies, and cells are looked up through an index of the column names. Adding a row copies the
+ * list of rows (not their cells) first. The list of {@link #getTableRows() table rows} can be changed like any list;
+ * it is copied (again without the cells) on the first change.
+ * </p>
+ * <p>
+ * The lookups {@link #where(String, String)}, {@link #groupBy(String)}, {@link #index(String)} and
+ * {@link #sortedBy(String)} build an index of the column on first use and keep it until a row or a cell is added, so
+ * repeated lookups on a large table do not scan its rows again. Lookups, column values and {@link #stream(Class)} all
+ * read the table rows, including cells added to them with {@link TableRow#addCell(String, String)}. Reading a table
+ * from several threads at once is safe; changing it is not.
+ * </p>
  */
 public class Table {
 
     private static final String LINE_SEPARATOR = System.getProperty("line.separator");
-    private static final String DASH = "-";
-    private static final String PIPE = "|";
-    private static final char SPACE_AS_CHAR = " ".charAt(0);
+    private static final char DASH = '-';
+    private static final char PIPE = '|';
+    private static final char SPACE_AS_CHAR = ' ';
     private final List<String> headers;
-    private final List<List<String>> rows;
-    private final List<TableRow> tableRows;
+    private final TableColumns columns;
+    private List<List<String>> rows;
+    private volatile AtomicReferenceArray<TableRow> rowViews;
+    private final TableRows tableRows = new TableRows();
+    private final Map<Integer, ColumnIndex> columnIndexes = new ConcurrentHashMap<>();
 
     public Table(List<String> headers) {
         this.headers = headers;
-        rows = new ArrayList<>();
-        tableRows = new ArrayList<>();
+        this.columns = new TableColumns(headers);
+        this.rows = new ArrayList<>();
+        this.rowViews = new AtomicReferenceArray<>(0);
+    }
+
+    private Table(Spec.ProtoTable protoTable) {
+        this.headers = protoTable.getHeaders().getCellsList();
+        this.columns = new TableColumns(headers);
+        for (int i = 0; i < protoTable.getRowsCount(); i++) {
+            checkRowSize(protoTable.getRows(i).getCellsCount());
+        }
+        this.rows = new ProtoRows(protoTable);
+        this.rowViews = new AtomicReferenceArray<>(rows.size());
+    }
+
+    /**
+     * Creates a table that reads its cells from the given proto table without copying them.
+     *
+     * @param protoTable - a table as sent by Gauge.
+     * @return the table.
+     */
+    public static Table from(Spec.ProtoTable protoTable) {
+        return new Table(protoTable);
     }
 
     public void addRow(List<String> row) {
-        if (row.size() != headers.size()) {
-            throw new RowSizeMismatchException(String.format("Row size mismatch. Expected row size: %d. Obtained row size: %d.", headers.size(), row.size()));
+        checkRowSize(row.size());
+        if (rows instanceof ProtoRows) {
+            rows = new ArrayList<>(rows);
         }
         rows.add(row);
-        TableRow rowToAdd = new TableRow();
-        for (String header : headers) {
-            rowToAdd.addCell(header, row.get(headers.indexOf(header)));
+        if (rows.size() > rowViews.length()) {
+            AtomicReferenceArray<TableRow> views = new AtomicReferenceArray<>(Math.max(rows.size(), rowViews.length() * 2));
+            for (int i = 0; i < rowViews.length(); i++) {
+                views.set(i, rowViews.get(i));
+            }
+            rowViews = views;
+        }
+        tableRows.rowAdded();
+        columnIndexes.clear();
+    }
+
+    private void checkRowSize(int rowSize) {
+        if (rowSize != headers.size()) {
+            throw new RowSizeMismatchException(String.format("Row size mismatch. Expected row size: %d. Obtained row size: %d.", headers.size(), rowSize));
         }
-        tableRows.add(rowToAdd);
     }
 
     /**
@@ -79,7 +134,8 @@ public class Table {
     }
 
     /**
-     * @return List of Rows in the table. Each Row is represented by a TableRow.
+     * @return List of Rows in the table. Each Row is represented by a TableRow. Changes to the list, such as sorting
+     *         it, change the rows of the table.
      */
     public List<TableRow> getTableRows() {
         return tableRows;
@@ -92,6 +148,13 @@ public class Table {
      */
     @Deprecated
     public List<List<String>> getRows() {
+        if (rows instanceof ProtoRows) {
+            List<List<String>> copies = new ArrayList<>(rows.size());
+            for (List<String> row : rows) {
+                copies.add(new ArrayList<>(row));
+            }
+            rows = copies;
+        }
         return rows;
     }
 
@@ -103,7 +166,7 @@ public class Table {
      * @return List of values against a column in Table.
      */
     public List<String> getColumnValues(String columnName) {
-        int columnIndex = headers.indexOf(columnName);
+        int columnIndex = columns.indexOf(columnName);
         return getColumnValues(columnIndex);
     }
 
@@ -115,10 +178,129 @@ public class Table {
      * @return List of row values of a given column index in a Table.
      */
     public List<String> getColumnValues(int columnIndex) {
+        List<String> columnValues = new ArrayList<>(columnIndex >= 0 ? tableRows.size() : 0);
         if (columnIndex >= 0) {
-            return rows.stream().map(row -> row.get(columnIndex)).collect(Collectors.toList());
+            for (TableRow row : tableRows) {
+                columnValues.add(valuesOf(row).get(columnIndex));
+            }
         }
-        return new ArrayList<>();
+        return columnValues;
+    }
+
+    /**
+     * Get the rows with the given value in a column.
+     *
+     * @param columnName
+     *            - The column name of the Table
+     * @param value
+     *            - The value to look up
+     * @return List of rows whose cell in the column equals the value, in the order of the rows. Empty if the table has
+     *         no such column or value.
+     */
+    public List<TableRow> where(String columnName, String value) {
+        ColumnIndex index = columnIndex(columnName);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<TableRow> matching = index.groups.get(value);
+        return matching == null ? Collections.<TableRow>emptyList() : matching;
+    }
+
+    /**
+     * Group the rows of the table by their values in a column.
+     *
+     * @param columnName
+     *            - The column name of the Table
+     * @return Read-only map from each value of the column, in order of first appearance, to the rows with that value.
+     *         Empty if the table has no such column.
+     */
+    public Map<String, List<TableRow>> groupBy(String columnName) {
+        ColumnIndex index = columnIndex(columnName);
+        return index == null ? Collections.<String, List<TableRow>>emptyMap() : index.groups;
+    }
+
+    /**
+     * Index the rows of the table by a column whose values identify them, such as a key or an id.
+     *
+     * @param columnName
+     *            - The column name of the Table
+     * @return Read-only map from each value of the column to the first row with that value. Empty if the table has no
+     *         such column.
+     */
+    public Map<String, TableRow> index(String columnName) {
+        ColumnIndex index = columnIndex(columnName);
+        return index == null ? Collections.<String, TableRow>emptyMap() : index.firstRows();
+    }
+
+    /**
+     * Get the rows of the table sorted by their values in a column. Rows with equal values keep their order.
+     *
+     * @param columnName
+     *            - The column name of the Table
+     * @return Read-only list of the rows sorted by the column. The rows in table order if the table has no such column.
+     */
+    public List<TableRow> sortedBy(String columnName) {
+        ColumnIndex index = columnIndex(columnName);
+        return index == null ? Collections.unmodifiableList(tableRows) : index.sortedRows();
+    }
+
+    /**
+     * Get the rows of the table sorted by their values in a column, in the order of the given comparator. Rows with
+     * equal values keep their order.
+     *
+     * @param columnName
+     *            - The column name of the Table
+     * @param comparator
+     *            - The order of the values, such as {@link String#CASE_INSENSITIVE_ORDER}
+     * @return Read-only list of the rows sorted by the column. The rows in table order if the table has no such column.
+     */
+    public List<TableRow> sortedBy(String columnName, Comparator<String> comparator) {
+        ColumnIndex index = columnIndex(columnName);
+        return index == null ? Collections.unmodifiableList(tableRows) : index.sortedRows(comparator);
+    }
+
+    /**
+     * Run the consumer for every row of the table on a pool of the given number of threads, and wait for all rows.
+     * Messages and screenshots taken while handling a row are added to the step in row order, whatever order the rows
+     * ran in. Use it for rows that do independent, slow work such as calls to other systems.
+     *
+     * @param rowConsumer
+     *            - The work to do for one row; called from several threads at once
+     * @param parallelism
+     *            - The number of rows to handle at the same time
+     * @throws RowExecutionException
+     *             if the consumer failed for any row, after all rows were handled
+     */
+    public void parallelForEach(Consumer<TableRow> rowConsumer, int parallelism) {
+        new ParallelRows(tableRows).forEach(rowConsumer, parallelism);
+    }
+
+    /**
+     * Map every row of the table to an object of the given type. Columns fill the fields of a class with a no-argument
+     * constructor, or the components of a record, of the same name; the name is also matched ignoring case, spaces and
+     * punctuation, so a column "Unit Price" fills {@code unitPrice}. Strings, primitives, their wrappers and enums are
+     * supported.
+     *
+     * @param type
+     *            - The type to map rows to
+     * @return List of objects, one for each row in the order of the rows
+     * @throws IllegalArgumentException
+     *             if the type has no fields or record components to fill, or a cell can not be converted
+     */
+    public <T> List<T> rowsAs(Class<T> type) {
+        return stream(type).collect(Collectors.toList());
+    }
+
+    /**
+     * Map the rows of the table to objects of the given type, as they are read. See {@link #rowsAs(Class)}.
+     *
+     * @param type
+     *            - The type to map rows to
+     * @return Stream of objects, one for each row in the order of the rows
+     */
+    public <T> Stream<T> stream(Class<T> type) {
+        Function<List<String>, T> mapper = TableRowMapper.of(type).bind(columns);
+        return tableRows.stream().map(this::valuesOf).map(mapper);
     }
 
     @Override
@@ -131,61 +313,70 @@ public class Table {
     }
 
     private String formatAsMarkdownTable(int maxStringLength) {
-        List<String> formattedHeaderAndRows = new ArrayList<>();
-        addHeader(maxStringLength, formattedHeaderAndRows);
-        addDashes(maxStringLength, formattedHeaderAndRows);
-        addValues(maxStringLength, formattedHeaderAndRows);
-        return Joiner.on(LINE_SEPARATOR).join(formattedHeaderAndRows);
-    }
-
-    private void addDashes(int maxStringLength, List<String> formattedHeaderAndRows) {
-        String dashesString = Joiner.on(StringUtils.EMPTY).join(Collections.nCopies(maxStringLength, DASH));
-        List<String> dashes = Collections.nCopies(headers.size(), dashesString);
-        String formattedDashes = formattedRow(dashes, maxStringLength);
-        formattedHeaderAndRows.add(formattedDashes);
+        StringBuilder table = new StringBuilder();
+        table.append(PIPE);
+        for (String header : headers) {
+            appendCell(table, header, maxStringLength);
+        }
+        table.append(LINE_SEPARATOR).append(PIPE);
+        for (int i = 0; i < headers.size(); i++) {
+            appendPadding(table, DASH, maxStringLength);
+            table.append(PIPE);
+        }
+        for (TableRow row : tableRows) {
+            table.append(LINE_SEPARATOR).append(PIPE);
+            for (String value : cellValuesOf(row)) {
+                appendCell(table, value, maxStringLength);
+            }
+        }
+        return table.toString();
     }
 
-    private void addHeader(int maxStringLength, List<String> formattedHeaderAndRows) {
-        String formattedHeaders = formattedRow(headers, maxStringLength);
-        formattedHeaderAndRows.add(formattedHeaders);
+    private void appendCell(StringBuilder table, String value, int maxStringLength) {
+        table.append(value);
+        appendPadding(table, SPACE_AS_CHAR, maxStringLength - value.length());
+        table.append(PIPE);
     }
 
-    private void addValues(int maxStringLength, List<String> formattedHeaderAndRows) {
-        tableRows.stream().map(tableRow -> formattedRow(tableRow.getCellValues(), maxStringLength)).forEach(formattedHeaderAndRows::add);
+    private void appendPadding(StringBuilder table, char padding, int count) {
+        for (int i = 0; i < count; i++) {
+            table.append(padding);
+        }
     }
 
-    private String formattedRow(List<String> strings, int maxStringLength) {
-        List<String> formattedStrings = Lists.transform(strings, format(maxStringLength));
-        return PIPE + Joiner.on(PIPE).join(formattedStrings) + PIPE;
+    private int getMaxStringLength() {
+        int max = getMaxStringSize(headers);
+        for (TableRow tableRow : tableRows) {
+            max = Math.max(max, getMaxStringSize(cellValuesOf(tableRow)));
+        }
+        return max;
     }
 
-    private Function<String, String> format(final int maxStringLength) {
-        return input -> Strings.padEnd(input, maxStringLength, SPACE_AS_CHAR);
+    // The cells of a row in column order, as in the table's rows
+    private List<String> valuesOf(TableRow row) {
+        if (row.isViewOf(columns)) {
+            return row.values();
+        }
+        List<String> values = new ArrayList<>(headers.size());
+        for (String header : headers) {
+            values.add(row.getCell(header));
+        }
+        return values;
     }
 
-    private Integer getMaxStringLength() {
-        List<Integer> maxs = new ArrayList<>();
-        maxs.add(getMaxStringSize(headers));
-        for (TableRow tableRow : tableRows) {
-            maxs.add(getMaxStringSize(tableRow.getCellValues()));
-        }
-        return Collections.max(maxs);
+    private List<String> cellValuesOf(TableRow row) {
+        return row.isViewOf(columns) && columns.distinctNames().size() == headers.size() ? new RowValues(row) : row.getCellValues();
     }
 
     private int getMaxStringSize(List<String> candidates) {
         if (candidates == null || candidates.isEmpty()) {
             return -1;
         }
-        return Collections.max(candidates, maxStringLength()).length();
-    }
-
-    private Comparator<String> maxStringLength() {
-        return (o1, o2) -> {
-            if (o1.length() < o2.length()) {
-                return -1;
-            }
-            return 1;
-        };
+        int max = 0;
+        for (String candidate : candidates) {
+            max = Math.max(max, candidate.length());
+        }
+        return max;
     }
 
     @Override
@@ -193,7 +384,6 @@ public class Table {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((headers == null) ? 0 : headers.hashCode());
-        result = prime * result + ((rows == null) ? 0 : rows.hashCode());
         result = prime * result + ((tableRows == null) ? 0 : tableRows.hashCode());
         return result;
     }
@@ -212,4 +402,190 @@ public class Table {
         Table other = (Table) obj;
         return headers.equals(other.getColumnNames()) && tableRows.equals(other.getTableRows());
     }
+
+    private TableRow rowView(int index) {
+        AtomicReferenceArray<TableRow> views = rowViews;
+        TableRow row = views.get(index);
+        if (row == null) {
+            views.compareAndSet(index, null, new TableRow(columns, rows.get(index), this::clearColumnIndexes));
+            row = views.get(index);
+        }
+        return row;
+    }
+
+    private void clearColumnIndexes() {
+        columnIndexes.clear();
+    }
+
+    private ColumnIndex columnIndex(String columnName) {
+        int columnIndex = columns.indexOf(columnName);
+        if (columnIndex < 0) {
+            return null;
+        }
+        ColumnIndex index = columnIndexes.get(columnIndex);
+        return index != null ? index : columnIndexes.computeIfAbsent(columnIndex, i -> new ColumnIndex(columnName));
+    }
+
+    /**
+     * The rows of the table: views of its rows until the list is first changed, a list of its own after that.
+     */
+    private final class TableRows extends AbstractList<TableRow> implements RandomAccess {
+        private List<TableRow> changed;
+
+        @Override
+        public TableRow get(int index) {
+            if (changed != null) {
+                return changed.get(index);
+            }
+            if (index < 0 || index >= rows.size()) {
+                throw new IndexOutOfBoundsException(String.format("Row with index %d not found. Actual row count: %d.", index, rows.size()));
+            }
+            return rowView(index);
+        }
+
+        @Override
+        public int size() {
+            return changed != null ? changed.size() : rows.size();
+        }
+
+        @Override
+        public TableRow set(int index, TableRow row) {
+            TableRow previous = change().set(index, row);
+            clearColumnIndexes();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, TableRow row) {
+            change().add(index, row);
+            modCount++;
+            clearColumnIndexes();
+        }
+
+        @Override
+        public TableRow remove(int index) {
+            TableRow removed = change().remove(index);
+            modCount++;
+            clearColumnIndexes();
+            return removed;
+        }
+
+        void rowAdded() {
+            if (changed != null) {
+                changed.add(rowView(rows.size() - 1));
+            }
+            modCount++;
+        }
+
+        private List<TableRow> change() {
+            if (changed == null) {
+                changed = new ArrayList<>(this);
+            }
+            return changed;
+        }
+    }
+
+    private final class ColumnIndex {
+        private final List<String> values;
+        private final Map<String, List<TableRow>> groups;
+        private volatile Map<String, TableRow> firstRows;
+        private volatile List<TableRow> sortedRows;
+
+        ColumnIndex(String columnName) {
+            // read through the row views, which hold the cells added to a row after the table was built
+            String[] columnValues = new String[tableRows.size()];
+            Map<String, List<Integer>> positionsByValue = new LinkedHashMap<>();
+            for (int i = 0; i < columnValues.length; i++) {
+                columnValues[i] = tableRows.get(i).getCell(columnName);
+                positionsByValue.computeIfAbsent(columnValues[i], value -> new ArrayList<>()).add(i);
+            }
+            this.values = Arrays.asList(columnValues);
+            Map<String, List<TableRow>> groupedRows = new LinkedHashMap<>(positionsByValue.size() * 2);
+            for (Map.Entry<String, List<Integer>> entry : positionsByValue.entrySet()) {
+                groupedRows.put(entry.getKey(), new RowsAt(entry.getValue()));
+            }
+            this.groups = Collections.unmodifiableMap(groupedRows);
+        }
+
+        Map<String, TableRow> firstRows() {
+            if (firstRows == null) {
+                Map<String, TableRow> first = new LinkedHashMap<>(groups.size() * 2);
+                for (Map.Entry<String, List<TableRow>> entry : groups.entrySet()) {
+                    first.put(entry.getKey(), entry.getValue().get(0));
+                }
+                firstRows = Collections.unmodifiableMap(first);
+            }
+            return firstRows;
+        }
+
+        List<TableRow> sortedRows() {
+            if (sortedRows == null) {
+                sortedRows = sortedRows(Comparator.naturalOrder());
+            }
+            return sortedRows;
+        }
+
+        List<TableRow> sortedRows(Comparator<String> comparator) {
+            Integer[] positions = new Integer[values.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = i;
+            }
+            Arrays.sort(positions, Comparator.comparing(values::get, comparator));
+            return new RowsAt(Arrays.asList(positions));
+        }
+    }
+
+    private final class RowsAt extends AbstractList<TableRow> implements RandomAccess {
+        private final List<Integer> positions;
+
+        RowsAt(List<Integer> positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        public TableRow get(int index) {
+            return tableRows.get(positions.get(index));
+        }
+
+        @Override
+        public int size() {
+            return positions.size();
+        }
+    }
+
+    private static final class RowValues extends AbstractList<String> implements RandomAccess {
+        private final TableRow row;
+
+        RowValues(TableRow row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(int index) {
+            return row.cellAt(index);
+        }
+
+        @Override
+        public int size() {
+            return row.size();
+        }
+    }
+
+    private static final class ProtoRows extends AbstractList<List<String>> implements RandomAccess {
+        private final Spec.ProtoTable protoTable;
+
+        ProtoRows(Spec.ProtoTable protoTable) {
+            this.protoTable = protoTable;
+        }
+
+        @Override
+        public List<String> get(int index) {
+            return protoTable.getRows(index).getCellsList();
+        }
+
+        @Override
+        public int size() {
+            return protoTable.getRowsCount();
+        }
+    }
 }
@@ -0,0 +1,69 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The column names of a {@link Table} with an index from name to position, shared by all rows of the table.
+ * <p>
+ * A repeated column name refers to its first position, and is only counted once as a cell of a row.
+ * </p>
+ */
+final class TableColumns {
+    private final List<String> names;
+    private final Map<String, Integer> indexByName;
+    private final List<String> distinctNames;
+    private final int[] distinctIndexes;
+
+    TableColumns(List<String> names) {
+        this.names = names;
+        this.indexByName = new HashMap<>(names.size() * 2);
+        List<String> distinct = new ArrayList<>(names.size());
+        List<Integer> indexes = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            if (indexByName.putIfAbsent(names.get(i), i) == null) {
+                distinct.add(names.get(i));
+                indexes.add(i);
+            }
+        }
+        this.distinctNames = Collections.unmodifiableList(distinct);
+        this.distinctIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * @return the position of the column, or -1 if the table has no such column.
+     */
+    int indexOf(String name) {
+        Integer index = indexByName.get(name);
+        return index == null ? -1 : index;
+    }
+
+    List<String> distinctNames() {
+        return distinctNames;
+    }
+
+    int distinctIndex(int i) {
+        return distinctIndexes[i];
+    }
+}
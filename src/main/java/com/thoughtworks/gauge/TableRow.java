@@ -12,19 +12,40 @@
 //
 // You can redistribute it and/or modify it under the terms of either license.
 // We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
-
 package com.thoughtworks.gauge;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 
 /**
  * Represents a Row of Data in a Table.
+ * <p>
+ * Rows of a {@link Table} are views over the values of the table and share its column index, so they do not copy
+ * cells. Adding a cell to such a row turns it into a copy of its own first, and has the table index its columns
+ * again for its lookups.
+ * </p>
  */
 public class TableRow {
-    private LinkedHashMap<String, String> cells = new LinkedHashMap<String, String>();
+    private LinkedHashMap<String, String> cells;
+    private final TableColumns columns;
+    private final List<String> values;
+    private final Runnable onCellAdded;
+
+    public TableRow() {
+        this.cells = new LinkedHashMap<>();
+        this.columns = null;
+        this.values = null;
+        this.onCellAdded = null;
+    }
+
+    TableRow(TableColumns columns, List<String> values, Runnable onCellAdded) {
+        this.columns = columns;
+        this.values = values;
+        this.onCellAdded = onCellAdded;
+    }
 
     /**
      * Get the value of cell corresponding to a column name.
@@ -34,10 +55,8 @@ public class TableRow {
      * @return The value of cell corresponding to a column name.
      */
     public String getCell(String columnName) {
-        if (!cells.containsKey(columnName)) {
-            return "";
-        }
-        return cells.get(columnName);
+        String value = valueOf(columnName);
+        return value == null ? "" : value;
     }
 
     /**
@@ -49,7 +68,13 @@ public class TableRow {
      *            The value to be stored in the cell.
      */
     public void addCell(String columnName, String value) {
+        if (cells == null) {
+            cells = asMap();
+        }
         cells.put(columnName, value);
+        if (onCellAdded != null) {
+            onCellAdded.run();
+        }
     }
 
     /**
@@ -58,12 +83,12 @@ public class TableRow {
      * @return The number of cells in TableRow.
      */
     public int size() {
-        return cells.size();
+        return cells != null ? cells.size() : columns.distinctNames().size();
     }
 
     @Override
     public String toString() {
-        return "TableRow{" + "cells=" + cells + '}';
+        return "TableRow{" + "cells=" + asMap() + '}';
     }
 
     /**
@@ -72,8 +97,15 @@ public class TableRow {
      * @return a list of the values of each cell in the table row.
      */
     public List<String> getCellValues() {
-        // Since we have a LinkedHashMap, the order of values() is guaranteed.
-        return new ArrayList<>(cells.values());
+        if (cells != null) {
+            // Since we have a LinkedHashMap, the order of values() is guaranteed.
+            return new ArrayList<>(cells.values());
+        }
+        List<String> cellValues = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            cellValues.add(values.get(columns.distinctIndex(i)));
+        }
+        return cellValues;
     }
 
     /**
@@ -83,22 +115,62 @@ public class TableRow {
      */
     public List<TableCell> getTableCells() {
         List<TableCell> listOfCells = new ArrayList<TableCell>();
+        for (String columnName : columnNames()) {
+            listOfCells.add(new TableCell(columnName, valueOf(columnName)));
+        }
+        return listOfCells;
+    }
 
-        // Since we have a LinkedHashMap, the order of entrySet() is guaranteed.
-        for (Map.Entry<String, String> mapEntry : cells.entrySet()) {
-            TableCell cell = new TableCell(mapEntry.getKey(), mapEntry.getValue());
-            listOfCells.add(cell);
+    boolean isViewOf(TableColumns tableColumns) {
+        return cells == null && columns == tableColumns;
+    }
+
+    /**
+     * @return the values in the order of the table columns; only valid while the row is a view of the table.
+     */
+    List<String> values() {
+        return values;
+    }
+
+    /**
+     * @return the value at the given position of the table columns; only valid while the row is a view of the table.
+     */
+    String cellAt(int columnIndex) {
+        return values.get(columnIndex);
+    }
+
+    private Collection<String> columnNames() {
+        return cells != null ? cells.keySet() : columns.distinctNames();
+    }
+
+    private String valueOf(String columnName) {
+        if (cells != null) {
+            return cells.get(columnName);
         }
+        int index = columns.indexOf(columnName);
+        return index < 0 ? null : values.get(index);
+    }
 
-        return listOfCells;
+    private LinkedHashMap<String, String> asMap() {
+        if (cells != null) {
+            return cells;
+        }
+        LinkedHashMap<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size(); i++) {
+            map.put(columns.distinctNames().get(i), values.get(columns.distinctIndex(i)));
+        }
+        return map;
     }
 
     @Override
     public int hashCode() {
         final int prime = 31;
-        int result = 1;
-        result = prime * result + ((cells == null) ? 0 : cells.hashCode());
-        return result;
+        // the hash of the cells as a Map, computed without building one
+        int cellsHash = 0;
+        for (String columnName : columnNames()) {
+            cellsHash += Objects.hashCode(columnName) ^ Objects.hashCode(valueOf(columnName));
+        }
+        return prime + cellsHash;
     }
 
     @Override
@@ -113,6 +185,15 @@ public class TableRow {
             return false;
         }
         TableRow other = (TableRow) obj;
-        return cells == null ? other.cells == null : cells.equals(other.cells);
+        if (size() != other.size()) {
+            return false;
+        }
+        for (String columnName : columnNames()) {
+            String value = valueOf(columnName);
+            if (!Objects.equals(value, other.valueOf(columnName)) || value == null && !other.columnNames().contains(columnName)) {
+                return false;
+            }
+        }
+        return true;
     }
 }
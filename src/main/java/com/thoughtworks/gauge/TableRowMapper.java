@@ -0,0 +1,240 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import com.thoughtworks.gauge.execution.parameters.parsers.types.EnumParameterParser;
+import com.thoughtworks.gauge.execution.parameters.parsers.types.PrimitivesConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Maps table rows to objects of one type: columns go to the fields of a class with a no-argument constructor, or to
+ * the components of a record. A mapper is built once per type; binding it to the columns of a table resolves the column
+ * of every property once per table, so mapping a row only converts its cells and calls method handles.
+ * <p>
+ * A column matches a property with the same name, or else with the same letters and digits ignoring case, so the column
+ * "Unit Price" fills {@code unitPrice}. Properties without a column keep their default value. Strings, primitives,
+ * their wrappers and enums are supported; enums are parsed as step parameters are, by {@link EnumParameterParser}.
+ * Properties of other types may be present as long as no column of the table matches them. Types without any property
+ * to fill, such as {@code Object} or {@code Integer}, are rejected.
+ * </p>
+ */
+final class TableRowMapper<T> {
+    private static final PrimitivesConverter PRIMITIVES = new PrimitivesConverter();
+    private static final EnumParameterParser ENUMS = new EnumParameterParser();
+    private static final ClassValue<TableRowMapper<?>> MAPPERS = new ClassValue<TableRowMapper<?>>() {
+        @Override
+        protected TableRowMapper<?> computeValue(Class<?> type) {
+            return new TableRowMapper<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final List<Property> properties = new ArrayList<>();
+    private final boolean record;
+    private final MethodHandle constructor;
+
+    private TableRowMapper(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            List<Class<?>> componentTypes = new ArrayList<>();
+            this.record = addRecordComponents(componentTypes);
+            if (record) {
+                Constructor<T> canonical = type.getDeclaredConstructor(componentTypes.toArray(new Class<?>[0]));
+                canonical.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, componentTypes.size())
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } else {
+                Constructor<T> noArgs = type.getDeclaredConstructor();
+                noArgs.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+                addFields(lookup);
+            }
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException(String.format("Cannot map table rows to %s: it needs a no-argument constructor or must be a record. %s",
+                    type.getName(), e.getMessage()), e);
+        }
+        if (properties.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Cannot map table rows to %s: it has no fields or record components to fill from the columns.",
+                    type.getName()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> TableRowMapper<T> of(Class<T> type) {
+        return (TableRowMapper<T>) MAPPERS.get(type);
+    }
+
+    /**
+     * @return a function that maps the cell values of one row of a table with the given columns.
+     * @throws IllegalArgumentException if a column matches a property of an unsupported type.
+     */
+    Function<List<String>, T> bind(TableColumns columns) {
+        int[] columnIndexes = new int[properties.size()];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            Property property = properties.get(i);
+            columnIndexes[i] = property.columnIn(columns);
+            if (columnIndexes[i] >= 0 && property.converter == null) {
+                throw new IllegalArgumentException(String.format("Cannot map table rows to %s: %s has the unsupported type %s.",
+                        type.getName(), property, property.type.getName()));
+            }
+        }
+        return values -> map(values, columnIndexes);
+    }
+
+    private T map(List<String> values, int[] columnIndexes) {
+        try {
+            if (record) {
+                Object[] arguments = new Object[properties.size()];
+                for (int i = 0; i < arguments.length; i++) {
+                    Property property = properties.get(i);
+                    arguments[i] = columnIndexes[i] < 0 ? property.defaultValue() : property.convert(values.get(columnIndexes[i]));
+                }
+                return type.cast((Object) constructor.invokeExact(arguments));
+            }
+            Object instance = (Object) constructor.invokeExact();
+            for (int i = 0; i < columnIndexes.length; i++) {
+                if (columnIndexes[i] >= 0) {
+                    properties.get(i).setter.invokeExact(instance, properties.get(i).convert(values.get(columnIndexes[i])));
+                }
+            }
+            return type.cast(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(String.format("Failed to create %s from a table row: %s", type.getName(), e), e);
+        }
+    }
+
+    private boolean addRecordComponents(List<Class<?>> componentTypes) {
+        Object[] components;
+        try {
+            // records exist from Java 16 on; look them up reflectively so this also runs on older Java versions
+            if (!(Boolean) Class.class.getMethod("isRecord").invoke(type)) {
+                return false;
+            }
+            components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+            for (Object component : components) {
+                Method getName = component.getClass().getMethod("getName");
+                Method getType = component.getClass().getMethod("getType");
+                Class<?> componentType = (Class<?>) getType.invoke(component);
+                properties.add(new Property(type, (String) getName.invoke(component), componentType, null));
+                componentTypes.add(componentType);
+            }
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(e.toString(), e);
+        }
+    }
+
+    private void addFields(MethodHandles.Lookup lookup) throws IllegalAccessException {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                MethodHandle setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+                properties.add(new Property(current, field.getName(), field.getType(), setter));
+            }
+        }
+    }
+
+    private static final class Property {
+        private final Class<?> declaringType;
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle setter;
+        private final Function<String, Object> converter;
+
+        Property(Class<?> declaringType, String name, Class<?> type, MethodHandle setter) {
+            this.declaringType = declaringType;
+            this.name = name;
+            this.type = type;
+            this.setter = setter;
+            this.converter = converterFor(type);
+        }
+
+        /**
+         * @return the converter of cells to the type, or null if the type is not supported.
+         */
+        private static Function<String, Object> converterFor(Class<?> type) {
+            if (type == String.class || type == Object.class) {
+                return value -> value;
+            }
+            if (type.isEnum()) {
+                return value -> ENUMS.getEnumInstance(type.asSubclass(Enum.class), value);
+            }
+            return PRIMITIVES.converterFor(type);
+        }
+
+        int columnIn(TableColumns columns) {
+            int index = columns.indexOf(name);
+            if (index >= 0) {
+                return index;
+            }
+            String normalizedName = normalize(name);
+            for (String column : columns.distinctNames()) {
+                if (normalize(column).equals(normalizedName)) {
+                    return columns.indexOf(column);
+                }
+            }
+            return -1;
+        }
+
+        Object convert(String value) {
+            try {
+                return converter.apply(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(String.format("Cannot convert \"%s\" to %s for %s. %s", value, type.getSimpleName(), name, e.getMessage()), e);
+            }
+        }
+
+        Object defaultValue() {
+            return type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+        }
+
+        @Override
+        public String toString() {
+            return declaringType.getSimpleName() + "." + name;
+        }
+
+        private static String normalize(String name) {
+            StringBuilder normalized = new StringBuilder(name.length());
+            for (char c : name.toCharArray()) {
+                if (Character.isLetterOrDigit(c)) {
+                    normalized.append(c);
+                }
+            }
+            return normalized.toString().toLowerCase(Locale.ROOT);
+        }
+    }
+}
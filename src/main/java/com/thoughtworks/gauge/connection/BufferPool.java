@@ -0,0 +1,82 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.connection;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recycles the heap buffers used to frame messages, so that connections do not allocate a new buffer for every message.
+ * Buffers are heap backed because protobuf can only alias the backing array of a heap buffer.
+ */
+final class BufferPool {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int MAX_POOLED_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_POWER_OF_TWO = Integer.highestOneBit(Integer.MAX_VALUE);
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private BufferPool() {
+    }
+
+    /**
+     * @param minCapacity - smallest capacity the caller can work with
+     * @return a cleared buffer with at least the given capacity
+     */
+    static ByteBuffer acquire(int minCapacity) {
+        Iterator<ByteBuffer> buffers = POOL.iterator();
+        while (buffers.hasNext()) {
+            ByteBuffer buffer = buffers.next();
+            if (buffer.capacity() >= minCapacity && POOL.remove(buffer)) {
+                POOLED.decrementAndGet();
+                ((Buffer) buffer).clear();
+                return buffer;
+            }
+        }
+        return ByteBuffer.allocate(capacityFor(minCapacity));
+    }
+
+    /**
+     * Hands a buffer back to the pool. The buffer must not be used by the caller afterwards.
+     */
+    static void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() > MAX_POOLED_BUFFER_SIZE) {
+            return;
+        }
+        if (POOLED.incrementAndGet() > MAX_POOLED_BUFFERS) {
+            POOLED.decrementAndGet();
+            return;
+        }
+        ((Buffer) buffer).clear();
+        POOL.offer(buffer);
+    }
+
+    private static int capacityFor(int minCapacity) {
+        if (minCapacity <= DEFAULT_BUFFER_SIZE) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        int capacity = Integer.highestOneBit(minCapacity);
+        if (capacity == minCapacity || capacity == MAX_POWER_OF_TWO) {
+            return minCapacity;
+        }
+        return capacity << 1;
+    }
+}
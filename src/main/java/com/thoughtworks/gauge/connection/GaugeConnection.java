@@ -15,34 +15,42 @@
 
 package com.thoughtworks.gauge.connection;
 
-import com.google.protobuf.CodedInputStream;
-import com.google.protobuf.CodedOutputStream;
 import com.thoughtworks.gauge.ConceptInfo;
 import com.thoughtworks.gauge.PluginNotInstalledException;
 import com.thoughtworks.gauge.StepValue;
 import gauge.messages.Api;
 import gauge.messages.Spec;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection to the Gauge API.
+ * <p>
+ * Requests are pipelined: every request gets a unique message id and is written as soon as it is sent, and a
+ * background reader matches the responses to their requests by message id. The blocking methods are thin wrappers
+ * over the asynchronous ones. Callbacks chained onto the returned futures without an executor run on the reader
+ * thread, so they should not block.
+ * </p>
+ */
 public class GaugeConnection {
 
-    private static final int GET_STEP_MSG_ID = 2;
-    private static final int GET_INSTALLATION_ROOT_MSG_ID = 3;
-    private static final int GET_STEP_VALUE_MSG_ID = 4;
-    private static final int GET_LIB_PATH_MSG_ID = 5;
-    private static final int GET_CONCEPT_MSG_ID = 6;
-    private static final int PERFORM_REFACTORING_MSG_ID = 7;
-    private static final int EXTRACT_CONCEPT_MSG_ID = 8;
-
     private final int port;
+    private final AtomicLong messageIds = new AtomicLong();
+    private final ConcurrentHashMap<Long, CompletableFuture<Api.APIMessage>> pendingRequests = new ConcurrentHashMap<>();
     private Socket gaugeSocket;
+    private MessageChannel channel;
+    private volatile IOException failure;
 
     public GaugeConnection(int port) {
         this.port = port;
@@ -54,29 +62,12 @@ public class GaugeConnection {
         port = socket.getPort();
     }
 
-    private static MessageLength getMessageLength(InputStream is) throws IOException {
-        CodedInputStream codedInputStream = CodedInputStream.newInstance(is);
-        long size = codedInputStream.readRawVarint64();
-        return new MessageLength(size, codedInputStream);
-    }
-
-    private static byte[] toBytes(MessageLength messageLength) throws IOException {
-        long messageSize = messageLength.getLength();
-        CodedInputStream stream = messageLength.getRemainingStream();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        for (int i = 0; i < messageSize; i++) {
-            outputStream.write(stream.readRawByte());
-        }
-
-        return outputStream.toByteArray();
-    }
-
     private void createConnection(int tries) {
         if (tries == 0) {
             throw new RuntimeException("Gauge API not started");
         }
         try {
-            gaugeSocket = new Socket("127.0.0.1", port);
+            gaugeSocket = SocketChannel.open(new InetSocketAddress(GaugeConnector.LOCALHOST, port)).socket();
         } catch (IOException e) {
             try {
                 //waits for the process to start accepting connection
@@ -95,15 +86,23 @@ public class GaugeConnection {
      * @throws IOException
      */
     public List<StepValue> fetchAllSteps() throws IOException {
-        Api.APIMessage message = getStepRequest();
-        Api.APIMessage response = getAPIResponse(message);
-        Api.GetAllStepsResponse allStepsResponse = response.getAllStepsResponse();
-        List<StepValue> steps = new ArrayList<>();
-        for (Spec.ProtoStepValue stepValueResponse : allStepsResponse.getAllStepsList()) {
-            StepValue stepValue = new StepValue(stepValueResponse.getStepValue(), stepValueResponse.getParameterizedStepValue(), stepValueResponse.getParametersList());
-            steps.add(stepValue);
-        }
-        return steps;
+        return await(fetchAllStepsAsync());
+    }
+
+    /**
+     * Fetches all the steps in the gauge project without waiting for the response.
+     *
+     * @return a future list of all steps
+     */
+    public CompletableFuture<List<StepValue>> fetchAllStepsAsync() {
+        return sendAsync(getStepRequest()).thenApply(response -> {
+            Api.GetAllStepsResponse allStepsResponse = response.getAllStepsResponse();
+            List<StepValue> steps = new ArrayList<>();
+            for (Spec.ProtoStepValue stepValueResponse : allStepsResponse.getAllStepsList()) {
+                steps.add(StepValue.from(stepValueResponse));
+            }
+            return steps;
+        });
     }
 
     /**
@@ -113,17 +112,24 @@ public class GaugeConnection {
      * @throws IOException
      */
     public List<ConceptInfo> fetchAllConcepts() throws IOException {
-        Api.APIMessage message = getConceptRequest();
-        Api.APIMessage response = getAPIResponse(message);
-        Api.GetAllConceptsResponse allConceptsResponse = response.getAllConceptsResponse();
-        List<ConceptInfo> conceptsInfo = new ArrayList<>();
-        for (Api.ConceptInfo conceptInfoResponse : allConceptsResponse.getConceptsList()) {
-            Spec.ProtoStepValue protoStepValue = conceptInfoResponse.getStepValue();
-            StepValue stepValue = new StepValue(protoStepValue.getStepValue(), protoStepValue.getParameterizedStepValue(), protoStepValue.getParametersList());
-            ConceptInfo conceptInfo = new ConceptInfo(stepValue, conceptInfoResponse.getFilepath(), conceptInfoResponse.getLineNumber());
-            conceptsInfo.add(conceptInfo);
-        }
-        return conceptsInfo;
+        return await(fetchAllConceptsAsync());
+    }
+
+    /**
+     * Fetches all the concepts in the Gauge project without waiting for the response.
+     *
+     * @return a future list of all the ConceptInfo
+     */
+    public CompletableFuture<List<ConceptInfo>> fetchAllConceptsAsync() {
+        return sendAsync(getConceptRequest()).thenApply(response -> {
+            Api.GetAllConceptsResponse allConceptsResponse = response.getAllConceptsResponse();
+            List<ConceptInfo> conceptsInfo = new ArrayList<>();
+            for (Api.ConceptInfo conceptInfoResponse : allConceptsResponse.getConceptsList()) {
+                StepValue stepValue = StepValue.from(conceptInfoResponse.getStepValue());
+                conceptsInfo.add(new ConceptInfo(stepValue, conceptInfoResponse.getFilepath(), conceptInfoResponse.getLineNumber()));
+            }
+            return conceptsInfo;
+        });
     }
 
     /**
@@ -143,23 +149,78 @@ public class GaugeConnection {
         return response.getLibPathResponse().getPath();
     }
 
+    /**
+     * Sends a request to gauge without waiting for the response. Any number of requests can be in flight at a time.
+     *
+     * @param request - the request to send. Its message id is replaced with one unique to this connection.
+     * @return the response to the request, or a future failed with an IOException if the connection breaks
+     */
+    public CompletableFuture<Api.APIMessage> sendAsync(Api.APIMessage request) {
+        long messageId = messageIds.incrementAndGet();
+        CompletableFuture<Api.APIMessage> response = new CompletableFuture<>();
+        pendingRequests.put(messageId, response);
+        try {
+            startReadingResponses().write(request.toBuilder().setMessageId(messageId).build());
+        } catch (IOException e) {
+            pendingRequests.remove(messageId);
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
     private Api.APIMessage getAPIResponse(Api.APIMessage message) throws IOException {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        CodedOutputStream cos = CodedOutputStream.newInstance(stream);
-        byte[] bytes = message.toByteArray();
-        cos.writeRawVarint64(bytes.length);
-        cos.flush();
-        stream.write(bytes);
-        synchronized (gaugeSocket) {
-            gaugeSocket.getOutputStream().write(stream.toByteArray());
-            gaugeSocket.getOutputStream().flush();
-
-            InputStream remoteStream = gaugeSocket.getInputStream();
-            MessageLength messageLength = getMessageLength(remoteStream);
-            bytes = toBytes(messageLength);
+        return await(sendAsync(message));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response from gauge");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private synchronized MessageChannel startReadingResponses() throws IOException {
+        if (failure != null) {
+            throw new IOException("Connection to gauge is closed", failure);
+        }
+        if (channel == null) {
+            final MessageChannel messageChannel = MessageChannel.of(gaugeSocket);
+            Thread reader = new Thread(() -> readResponses(messageChannel), "gauge-api-responses");
+            reader.setDaemon(true);
+            reader.start();
+            channel = messageChannel;
+        }
+        return channel;
+    }
+
+    private void readResponses(MessageChannel messageChannel) {
+        try {
+            while (true) {
+                // API responses carry no bytes fields, so they never alias the channel's buffer once handed over.
+                Api.APIMessage response = messageChannel.read(Api.APIMessage.parser());
+                CompletableFuture<Api.APIMessage> request = pendingRequests.remove(response.getMessageId());
+                if (request == null) {
+                    System.err.println("Received a response for an unknown request " + response.getMessageId());
+                } else {
+                    request.complete(response);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            for (Long messageId : pendingRequests.keySet()) {
+                CompletableFuture<Api.APIMessage> request = pendingRequests.remove(messageId);
+                if (request != null) {
+                    request.completeExceptionally(e);
+                }
+            }
         }
-        Api.APIMessage apiMessage = Api.APIMessage.parseFrom(bytes);
-        return apiMessage;
     }
 
     /**
@@ -192,20 +253,24 @@ public class GaugeConnection {
      * @return value of the given step name
      */
     public StepValue getStepValue(String stepText, boolean hasInlineTable) {
-        Api.APIMessage stepValueRequest = getStepValueRequest(stepText, hasInlineTable);
-        Api.APIMessage response;
         try {
-            response = getAPIResponse(stepValueRequest);
+            return await(getStepValueAsync(stepText, hasInlineTable));
         } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
-        Api.GetStepValueResponse stepValueResponse = response.getStepValueResponse();
-        Spec.ProtoStepValue protoStepValue = stepValueResponse.getStepValue();
-        String stepValue = protoStepValue.getStepValue();
-        List<String> parametersList = protoStepValue.getParametersList();
-        String parameterizedStepValue = protoStepValue.getParameterizedStepValue();
-        return new StepValue(stepValue, parameterizedStepValue, parametersList);
+    }
+
+    /**
+     * Gets the step value for a particular step name without waiting for the response.
+     *
+     * @param stepText       - The name of the step, eg. login as "admin"
+     * @param hasInlineTable - set to true if the step has an inline table parameter
+     * @return future value of the given step name
+     */
+    public CompletableFuture<StepValue> getStepValueAsync(String stepText, boolean hasInlineTable) {
+        return sendAsync(getStepValueRequest(stepText, hasInlineTable))
+                .thenApply(response -> StepValue.from(response.getStepValueResponse().getStepValue()));
     }
 
     /**
@@ -250,7 +315,6 @@ public class GaugeConnection {
         Api.GetAllStepsRequest stepRequest = Api.GetAllStepsRequest.newBuilder().build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.GetAllStepsRequest)
-                .setMessageId(GET_STEP_MSG_ID)
                 .setAllStepsRequest(stepRequest)
                 .build();
     }
@@ -259,7 +323,6 @@ public class GaugeConnection {
         Api.GetInstallationRootRequest installationRootRequest = Api.GetInstallationRootRequest.newBuilder().build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.GetInstallationRootRequest)
-                .setMessageId(GET_INSTALLATION_ROOT_MSG_ID)
                 .setInstallationRootRequest(installationRootRequest)
                 .build();
     }
@@ -268,7 +331,6 @@ public class GaugeConnection {
         Api.GetStepValueRequest stepValueRequest = Api.GetStepValueRequest.newBuilder().setStepText(stepText).setHasInlineTable(hasInlineTable).build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.GetStepValueRequest)
-                .setMessageId(GET_STEP_VALUE_MSG_ID)
                 .setStepValueRequest(stepValueRequest)
                 .build();
     }
@@ -277,7 +339,6 @@ public class GaugeConnection {
         Api.GetLanguagePluginLibPathRequest libPathRequest = Api.GetLanguagePluginLibPathRequest.newBuilder().setLanguage(language).build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.GetLanguagePluginLibPathRequest)
-                .setMessageId(GET_LIB_PATH_MSG_ID)
                 .setLibPathRequest(libPathRequest)
                 .build();
     }
@@ -286,7 +347,6 @@ public class GaugeConnection {
         Api.GetAllConceptsRequest conceptRequest = Api.GetAllConceptsRequest.newBuilder().build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.GetAllConceptsRequest)
-                .setMessageId(GET_CONCEPT_MSG_ID)
                 .setAllConceptsRequest(conceptRequest)
                 .build();
     }
@@ -298,7 +358,6 @@ public class GaugeConnection {
                 .build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.PerformRefactoringRequest)
-                .setMessageId(PERFORM_REFACTORING_MSG_ID)
                 .setPerformRefactoringRequest(performRefactoringRequest)
                 .build();
     }
@@ -308,7 +367,6 @@ public class GaugeConnection {
                 .setSelectedTextInfo(selectedTextInfo).setConceptFileName(fileName).setConceptName(concept).build();
         return Api.APIMessage.newBuilder()
                 .setMessageType(Api.APIMessage.APIMessageType.ExtractConceptRequest)
-                .setMessageId(EXTRACT_CONCEPT_MSG_ID)
                 .setExtractConceptRequest(request)
                 .build();
     }
@@ -0,0 +1,71 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.connection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A few connections to the Gauge API to spread a batch of requests over, so that they do not all queue behind one
+ * socket and its reader thread. The first connection is the runner's own API connection; the others are opened when
+ * first needed, and closed with the pool. If gauge does not accept another connection the pool makes do with the ones
+ * it has.
+ */
+public class GaugeConnectionPool implements Closeable {
+    private final int port;
+    private final int size;
+    private final List<GaugeConnection> connections = new ArrayList<>();
+    private boolean full;
+    private int next;
+
+    GaugeConnectionPool(GaugeConnection connection, int port, int size) {
+        this.port = port;
+        this.size = size;
+        this.connections.add(connection);
+    }
+
+    /**
+     * @return the connection to send the next request on, taking turns between the connections of the pool.
+     */
+    public synchronized GaugeConnection next() {
+        if (!full && connections.size() < size) {
+            try {
+                connections.add(new GaugeConnection(SocketChannel.open(new InetSocketAddress(GaugeConnector.LOCALHOST, port)).socket()));
+            } catch (IOException e) {
+                full = true;
+            }
+        }
+        GaugeConnection connection = connections.get(next);
+        next = (next + 1) % connections.size();
+        return connection;
+    }
+
+    /**
+     * Closes the connections opened by the pool, but not the runner's own API connection.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (GaugeConnection connection : connections.subList(1, connections.size())) {
+            connection.close();
+        }
+        connections.subList(1, connections.size()).clear();
+        next = 0;
+    }
+}
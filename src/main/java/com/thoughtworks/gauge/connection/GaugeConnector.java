@@ -15,7 +15,9 @@
 
 package com.thoughtworks.gauge.connection;
 
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 
 /**
  * Makes 2 important connections to the gauge core
@@ -29,9 +31,11 @@ public class GaugeConnector {
     public static final String LOCALHOST = "127.0.0.1";
     private Socket gaugeSocket;
     private GaugeConnection gaugeApiConnection;
+    private int apiPort;
 
     public void makeConnectionsToGaugeCore(int gaugeInternalPort, int gaugeApiPort) {
         gaugeSocket = connect(gaugeInternalPort);
+        apiPort = gaugeApiPort;
         Socket apiSocket = connect(gaugeApiPort);
         gaugeApiConnection = new GaugeConnection(apiSocket);
     }
@@ -40,7 +44,7 @@ public class GaugeConnector {
         Socket clientSocket;
         while (true) {
             try {
-                clientSocket = new Socket(LOCALHOST, port);
+                clientSocket = SocketChannel.open(new InetSocketAddress(LOCALHOST, port)).socket();
                 break;
             } catch (Exception ignored) {
             }
@@ -53,6 +57,14 @@ public class GaugeConnector {
         return gaugeApiConnection;
     }
 
+    /**
+     * @param size - the most connections to use, including the API connection
+     * @return a pool that spreads requests over the API connection and up to size - 1 further connections to the API.
+     */
+    public GaugeConnectionPool getGaugeApiConnectionPool(int size) {
+        return new GaugeConnectionPool(gaugeApiConnection, apiPort, size);
+    }
+
     public Socket getGaugeSocket() {
         return gaugeSocket;
     }
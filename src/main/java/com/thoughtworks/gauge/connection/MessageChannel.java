@@ -0,0 +1,234 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.connection;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.thoughtworks.gauge.GaugeConstant;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Reads and writes varint length prefixed protobuf messages over a channel.
+ * <p>
+ * Incoming bytes are read in bulk into a pooled buffer and messages are parsed straight out of that buffer with
+ * aliasing enabled. A parsed message may therefore share the buffer for its {@code bytes} fields, so it has to be
+ * consumed before the next call to {@link #read(Parser)}.
+ * </p>
+ */
+class MessageChannel {
+    static final int DEFAULT_MAX_MESSAGE_SIZE_MB = 1024;
+    private static final int BYTES_IN_MB = 1024 * 1024;
+    private static final int MAX_VARINT_SHIFT = 64;
+    private static final int VARINT_SHIFT = 7;
+    private static final int VARINT_PAYLOAD = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+
+    private final ReadableByteChannel in;
+    private final WritableByteChannel out;
+    private final int maxMessageSize;
+    private final Object writeLock = new Object();
+    private ByteBuffer readBuffer;
+    private boolean timeDecoding;
+    private int lastMessageSize;
+    private long lastDecodeNanos;
+
+    MessageChannel(ReadableByteChannel in, WritableByteChannel out, int maxMessageSize) {
+        this.in = in;
+        this.out = out;
+        this.maxMessageSize = maxMessageSize;
+        this.readBuffer = BufferPool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+        flip(readBuffer);
+    }
+
+    static MessageChannel of(Socket socket) throws IOException {
+        if (socket.getChannel() != null) {
+            return new MessageChannel(socket.getChannel(), socket.getChannel(), maxMessageSize());
+        }
+        return new MessageChannel(Channels.newChannel(socket.getInputStream()), Channels.newChannel(socket.getOutputStream()), maxMessageSize());
+    }
+
+    /**
+     * @return the maximum size of a single message in bytes, configurable in MB through {@link GaugeConstant#MAX_MESSAGE_SIZE}
+     */
+    static int maxMessageSize() {
+        String size = System.getenv(GaugeConstant.MAX_MESSAGE_SIZE);
+        long megaBytes = DEFAULT_MAX_MESSAGE_SIZE_MB;
+        if (size != null && !size.trim().isEmpty()) {
+            try {
+                megaBytes = Long.parseLong(size.trim());
+            } catch (NumberFormatException e) {
+                System.err.println(String.format("Invalid value '%s' for %s, using %d MB", size, GaugeConstant.MAX_MESSAGE_SIZE, DEFAULT_MAX_MESSAGE_SIZE_MB));
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, megaBytes) * BYTES_IN_MB);
+    }
+
+    /**
+     * Reads the next message from the channel.
+     *
+     * @param parser - parser of the expected message type, eg. Messages.Message.parser()
+     * @return the parsed message
+     * @throws IOException if the channel is closed or the message is larger than the maximum message size
+     */
+    <T extends MessageLite> T read(Parser<T> parser) throws IOException {
+        long size = readLength();
+        if (size < 0 || size > maxMessageSize) {
+            throw new IOException(String.format("Message of %d bytes exceeds the maximum message size of %d bytes", size, maxMessageSize));
+        }
+        int length = (int) size;
+        fill(length);
+        CodedInputStream stream = CodedInputStream.newInstance(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(), length);
+        stream.enableAliasing(true);
+        long decodeStart = timeDecoding ? System.nanoTime() : 0;
+        T message = parser.parseFrom(stream);
+        lastDecodeNanos = timeDecoding ? System.nanoTime() - decodeStart : 0;
+        lastMessageSize = length;
+        ((Buffer) readBuffer).position(readBuffer.position() + length);
+        return message;
+    }
+
+    /**
+     * Sets whether {@link #read(Parser)} times how long parsing a message takes, which it does not by default.
+     */
+    void timeDecoding(boolean enabled) {
+        timeDecoding = enabled;
+    }
+
+    /**
+     * @return the size in bytes of the message last read, without its length prefix
+     */
+    int lastMessageSize() {
+        return lastMessageSize;
+    }
+
+    /**
+     * @return how long parsing the message last read took in nanoseconds, or 0 if decoding is not timed
+     */
+    long lastDecodeNanos() {
+        return lastDecodeNanos;
+    }
+
+    /**
+     * Writes a message prefixed with its length. Serializes straight into a pooled buffer.
+     */
+    void write(MessageLite message) throws IOException {
+        int size = message.getSerializedSize();
+        int totalSize = CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+        ByteBuffer buffer = BufferPool.acquire(totalSize);
+        try {
+            CodedOutputStream stream = CodedOutputStream.newInstance(buffer);
+            stream.writeUInt32NoTag(size);
+            message.writeTo(stream);
+            send(stream, buffer);
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Writes a message that was serialized once without its id, adding the id as the first field. A parser accepts
+     * fields in any order, so this reads back as the message with that id.
+     *
+     * @param idFieldNumber - the field number of the int64 message id
+     * @param messageId - the id to add; left out if it is 0, as proto3 does
+     * @param serializedMessage - the message without an id
+     */
+    void write(int idFieldNumber, long messageId, byte[] serializedMessage) throws IOException {
+        int idSize = messageId == 0 ? 0 : CodedOutputStream.computeInt64Size(idFieldNumber, messageId);
+        int size = idSize + serializedMessage.length;
+        ByteBuffer buffer = BufferPool.acquire(CodedOutputStream.computeUInt32SizeNoTag(size) + size);
+        try {
+            CodedOutputStream stream = CodedOutputStream.newInstance(buffer);
+            stream.writeUInt32NoTag(size);
+            if (messageId != 0) {
+                stream.writeInt64(idFieldNumber, messageId);
+            }
+            stream.writeRawBytes(serializedMessage);
+            send(stream, buffer);
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    private void send(CodedOutputStream stream, ByteBuffer buffer) throws IOException {
+        stream.flush();
+        flip(buffer);
+        synchronized (writeLock) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the read buffer to the pool. The channel must not be read from afterwards.
+     */
+    void release() {
+        BufferPool.release(readBuffer);
+        readBuffer = null;
+    }
+
+    private long readLength() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < MAX_VARINT_SHIFT; shift += VARINT_SHIFT) {
+            if (!readBuffer.hasRemaining()) {
+                fill(1);
+            }
+            byte b = readBuffer.get();
+            result |= (long) (b & VARINT_PAYLOAD) << shift;
+            if ((b & VARINT_CONTINUATION) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed message length received");
+    }
+
+    private void fill(int length) throws IOException {
+        if (readBuffer.remaining() >= length) {
+            return;
+        }
+        if (readBuffer.capacity() < length) {
+            ByteBuffer larger = BufferPool.acquire(length);
+            larger.put(readBuffer);
+            BufferPool.release(readBuffer);
+            readBuffer = larger;
+        } else {
+            readBuffer.compact();
+        }
+        while (readBuffer.position() < length) {
+            if (in.read(readBuffer) < 0) {
+                flip(readBuffer);
+                throw new EOFException("Connection closed");
+            }
+        }
+        flip(readBuffer);
+    }
+
+    // Called through Buffer so that classes compiled on newer JDKs still link against the Java 8 signatures.
+    private static void flip(ByteBuffer buffer) {
+        ((Buffer) buffer).flip();
+    }
+}
@@ -15,11 +15,10 @@
 package com.thoughtworks.gauge.connection;
 
 
-import com.google.protobuf.CodedInputStream;
-import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.datastore.DataStoreInitializer;
+import com.thoughtworks.gauge.jfr.RunnerEvents;
 import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParsingChain;
 import com.thoughtworks.gauge.processor.IMessageProcessor;
 import com.thoughtworks.gauge.processor.SpecExecutionStartingProcessor;
@@ -40,9 +39,8 @@ import com.thoughtworks.gauge.registry.ClassInitializerRegistry;
 import com.thoughtworks.gauge.registry.StepRegistry;
 import gauge.messages.Messages;
 
-import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.Socket;
 import java.util.HashMap;
 
@@ -51,6 +49,7 @@ import java.util.HashMap;
  * valid response.
  */
 public class MessageDispatcher {
+    private static final byte[] PASSED_RESPONSE = IMessageProcessor.PASSED.toByteArray();
 
     private final HashMap<Messages.Message.MessageType, IMessageProcessor> messageProcessors;
 
@@ -79,61 +78,47 @@ public class MessageDispatcher {
 
     public void dispatchMessages(GaugeConnector connector) throws IOException {
         Socket gaugeSocket = connector.getGaugeSocket();
-        InputStream inputStream = gaugeSocket.getInputStream();
-        while (isConnected(gaugeSocket)) {
-            try {
-                MessageLength messageLength = getMessageLength(inputStream);
-                byte[] bytes = toBytes(messageLength);
-                Messages.Message message = Messages.Message.parseFrom(bytes);
-                if (!messageProcessors.containsKey(message.getMessageType())) {
-                    System.err.println("Invalid message type received " + message.getMessageType());
-                } else {
-                    IMessageProcessor messageProcessor = messageProcessors.get(message.getMessageType());
-                    Messages.Message response = messageProcessor.process(message);
-                    writeMessage(gaugeSocket, response);
-                    if (message.getMessageType() == Messages.Message.MessageType.KillProcessRequest) {
-                        gaugeSocket.close();
-                        return;
+        MessageChannel channel = MessageChannel.of(gaugeSocket);
+        try {
+            while (isConnected(gaugeSocket)) {
+                try {
+                    channel.timeDecoding(RunnerEvents.isDispatchEnabled());
+                    Messages.Message message = channel.read(Messages.Message.parser());
+                    if (!messageProcessors.containsKey(message.getMessageType())) {
+                        System.err.println("Invalid message type received " + message.getMessageType());
+                    } else {
+                        Object event = RunnerEvents.beginDispatch();
+                        long processStart = event == null ? 0 : System.nanoTime();
+                        IMessageProcessor messageProcessor = messageProcessors.get(message.getMessageType());
+                        Messages.Message response = messageProcessor.process(message);
+                        long writeStart = event == null ? 0 : System.nanoTime();
+                        if (response == IMessageProcessor.PASSED) {
+                            channel.write(Messages.Message.MESSAGEID_FIELD_NUMBER, message.getMessageId(), PASSED_RESPONSE);
+                        } else {
+                            channel.write(response);
+                        }
+                        if (event != null) {
+                            RunnerEvents.commitDispatch(event, message.getMessageType().name(), channel.lastMessageSize(),
+                                    channel.lastDecodeNanos(), writeStart - processStart, System.nanoTime() - writeStart);
+                        }
+                        if (message.getMessageType() == Messages.Message.MessageType.KillProcessRequest) {
+                            gaugeSocket.close();
+                            return;
+                        }
                     }
+                } catch (InvalidProtocolBufferException | EOFException e) {
+                    return;
+                } catch (Throwable throwable) {
+                    throwable.printStackTrace();
+                    System.err.println(throwable.toString());
+                    return;
                 }
-            } catch (InvalidProtocolBufferException e) {
-                return;
-            } catch (Throwable throwable) {
-                throwable.printStackTrace();
-                System.err.println(throwable.toString());
-                return;
             }
+        } finally {
+            channel.release();
         }
     }
 
-    private MessageLength getMessageLength(InputStream is) throws IOException {
-        CodedInputStream codedInputStream = CodedInputStream.newInstance(is);
-        long size = codedInputStream.readRawVarint64();
-        return new MessageLength(size, codedInputStream);
-    }
-
-    private byte[] toBytes(MessageLength messageLength) throws IOException {
-        long messageSize = messageLength.getLength();
-        CodedInputStream stream = messageLength.getRemainingStream();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        for (int i = 0; i < messageSize; i++) {
-            outputStream.write(stream.readRawByte());
-        }
-
-        return outputStream.toByteArray();
-    }
-
-    private void writeMessage(Socket socket, Messages.Message message) throws IOException {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        CodedOutputStream cos = CodedOutputStream.newInstance(stream);
-        byte[] bytes = message.toByteArray();
-        cos.writeRawVarint64(bytes.length);
-        cos.flush();
-        stream.write(bytes);
-        socket.getOutputStream().write(stream.toByteArray());
-        socket.getOutputStream().flush();
-    }
-
     private boolean isConnected(Socket socket) {
         return !socket.isClosed() && socket.isConnected();
     }
@@ -19,7 +19,6 @@ package com.thoughtworks.gauge.datastore;
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.processor.IMessageProcessor;
 import gauge.messages.Messages;
-import gauge.messages.Spec;
 
 public class DataStoreInitializer implements IMessageProcessor {
     private ClassInstanceManager instanceManager;
@@ -40,14 +39,6 @@ public class DataStoreInitializer implements IMessageProcessor {
                 DataStoreFactory.getScenarioDataStore().clear();
                 break;
         }
-        return createMessageWithExecutionStatusResponse(message, Spec.ProtoExecutionResult.newBuilder().setExecutionTime(0).setFailed(false).build());
-    }
-
-    private Messages.Message createMessageWithExecutionStatusResponse(Messages.Message receivedMessage, Spec.ProtoExecutionResult result) {
-        return Messages.Message.newBuilder()
-                .setMessageId(receivedMessage.getMessageId())
-                .setMessageType(Messages.Message.MessageType.ExecutionStatusResponse)
-                .setExecutionStatusResponse(Messages.ExecutionStatusResponse.newBuilder().setExecutionResult(result).build())
-                .build();
+        return PASSED;
     }
 }
@@ -20,32 +20,54 @@ import com.thoughtworks.gauge.Specification;
 import com.thoughtworks.gauge.ExecutionContext;
 import com.thoughtworks.gauge.StepDetails;
 import com.thoughtworks.gauge.execution.parameters.DynamicParametersReplacer;
+import com.thoughtworks.gauge.tag.TagIds;
 import gauge.messages.Messages;
 import gauge.messages.Spec;
 
 import java.util.List;
 
+/**
+ * Maps the execution info Gauge sends with lifecycle messages to an {@link ExecutionContext}.
+ * <p>
+ * The context decodes the spec, scenario and step when they are first asked for, which most hooks never do. The last
+ * spec and scenario are kept, so the messages of the steps of one scenario share the same objects; their tags are
+ * interned read-only lists.
+ * </p>
+ */
 public class ExecutionInfoMapper {
+    private static volatile Decoded<Messages.SpecInfo, Specification> lastSpecification;
+    private static volatile Decoded<Messages.ScenarioInfo, Scenario> lastScenario;
+
     public ExecutionContext executionInfoFrom(Messages.ExecutionInfo currentExecutionInfo) {
         if (!currentExecutionInfo.isInitialized()) {
             return new ExecutionContext();
         }
-        return new ExecutionContext(specificationFrom(currentExecutionInfo.getCurrentSpec()), scenarioFrom(currentExecutionInfo.getCurrentScenario()),
-                stepFrom(currentExecutionInfo.getCurrentStep()));
+        return new ExecutionContext(() -> specificationFrom(currentExecutionInfo.getCurrentSpec()),
+                () -> scenarioFrom(currentExecutionInfo.getCurrentScenario()), () -> stepFrom(currentExecutionInfo.getCurrentStep()));
     }
 
-    private Specification specificationFrom(Messages.SpecInfo currentSpec) {
-        if (currentSpec.isInitialized()) {
-            return new Specification(currentSpec.getName(), currentSpec.getFileName(), currentSpec.getIsFailed(), currentSpec.getTagsList());
+    Specification specificationFrom(Messages.SpecInfo currentSpec) {
+        Decoded<Messages.SpecInfo, Specification> last = lastSpecification;
+        if (last != null && last.info.equals(currentSpec)) {
+            return last.value;
         }
-        return new Specification();
+        Specification specification = currentSpec.isInitialized()
+                ? new Specification(currentSpec.getName(), currentSpec.getFileName(), currentSpec.getIsFailed(), TagIds.intern(currentSpec.getTagsList()))
+                : new Specification();
+        lastSpecification = new Decoded<>(currentSpec, specification);
+        return specification;
     }
 
     Scenario scenarioFrom(Messages.ScenarioInfo currentScenario) {
-        if (currentScenario.isInitialized()) {
-            return new Scenario(currentScenario.getName(), currentScenario.getIsFailed(), currentScenario.getTagsList());
+        Decoded<Messages.ScenarioInfo, Scenario> last = lastScenario;
+        if (last != null && last.info.equals(currentScenario)) {
+            return last.value;
         }
-        return new Scenario();
+        Scenario scenario = currentScenario.isInitialized()
+                ? new Scenario(currentScenario.getName(), currentScenario.getIsFailed(), TagIds.intern(currentScenario.getTagsList()))
+                : new Scenario();
+        lastScenario = new Decoded<>(currentScenario, scenario);
+        return scenario;
     }
 
     public StepDetails stepFrom(Messages.StepInfo currentStep) {
@@ -62,4 +84,14 @@ public class ExecutionInfoMapper {
         }
         return new StepDetails();
     }
+
+    private static final class Decoded<I, T> {
+        private final I info;
+        private final T value;
+
+        Decoded(I info, T value) {
+            this.info = info;
+            this.value = value;
+        }
+    }
 }
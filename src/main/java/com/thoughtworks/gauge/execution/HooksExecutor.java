@@ -17,16 +17,17 @@ package com.thoughtworks.gauge.execution;
 
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.ExecutionContext;
-import com.thoughtworks.gauge.Operator;
 import com.thoughtworks.gauge.hook.Hook;
-import com.thoughtworks.gauge.tag.TagMatcher;
+import com.thoughtworks.gauge.hook.HookList;
+import com.thoughtworks.gauge.jfr.RunnerEvents;
+import com.thoughtworks.gauge.tag.TagIds;
 import gauge.messages.Spec;
 
-import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
 
 public class HooksExecutor {
+    private static final Object[] NO_ARGS = new Object[0];
+
     private final List<Hook> hooks;
     private final ExecutionContext info;
     private ClassInstanceManager manager;
@@ -38,69 +39,46 @@ public class HooksExecutor {
     }
 
     public Spec.ProtoExecutionResult execute() {
-        Spec.ProtoExecutionResult result;
-        long totalHooksExecutionTime = 0;
-
-        for (Hook hook : hooks) {
-            result = new TaggedHookExecutor(hook, info).execute();
-            totalHooksExecutionTime += result.getExecutionTime();
-            if (result.getFailed()) {
-                return Spec.ProtoExecutionResult.newBuilder(result).setExecutionTime(totalHooksExecutionTime).build();
-            }
-        }
-        return Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(totalHooksExecutionTime).build();
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        execute(result);
+        return result.build();
     }
 
-    private boolean methodHasArguments(Method method, Object... arg) {
-        if (method.getParameterTypes().length != arg.length) {
-            return false;
-        }
-        List<Class> argsClassList = createClassList(arg);
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        boolean isValid = true;
-        for (int i = 0; i < parameterTypes.length; i++) {
-            if (!(argsClassList.indexOf(parameterTypes[i]) == i)) {
-                isValid = false;
+    /**
+     * Runs the hooks until one fails, merging their outcome into the given result of the stages before them.
+     */
+    public void execute(Spec.ProtoExecutionResult.Builder result) {
+        for (Hook hook : applicableHooks()) {
+            Object event = RunnerEvents.beginHook();
+            boolean passed = executeHook(hook, result);
+            RunnerEvents.commitHook(event, hook.getMethod(), !passed);
+            if (!passed) {
+                return;
             }
         }
-        return isValid;
     }
 
-    private List<Class> createClassList(Object[] objects) {
-        ArrayList<Class> classes = new ArrayList<Class>();
-        for (Object obj : objects) {
-            classes.add(obj.getClass());
+    private List<Hook> applicableHooks() {
+        HookList hookList = HookList.of(hooks);
+        if (!hookList.hasTaggedHooks()) {
+            return hookList;
         }
-        return classes;
+        List<String> specTags = info.getCurrentSpecification() != null ? info.getCurrentSpecification().getTags() : null;
+        List<String> scenarioTags = info.getCurrentScenario() != null ? info.getCurrentScenario().getTags() : null;
+        return hookList.applicableTo(TagIds.bitsOf(specTags, scenarioTags));
     }
 
-    private class TaggedHookExecutor {
-        private final Hook hook;
-        private final ExecutionContext info;
-
-        TaggedHookExecutor(Hook hook, ExecutionContext info) {
-            this.hook = hook;
-            this.info = info;
+    private boolean executeHook(Hook hook, Spec.ProtoExecutionResult.Builder result) {
+        MethodExecutor methodExecutor = new MethodExecutor(manager);
+        MethodInvoker invoker = MethodInvoker.of(hook.getMethod());
+        if (invoker.takesExecutionContext()) {
+            return methodExecutor.execute(invoker, new Object[]{info}, result);
         }
-
-        public Spec.ProtoExecutionResult execute() {
-            if (tagsMatch(hook.getTags(), hook.getTagsAggregation(), info.getAllTags())) {
-                return executeHook();
-            }
-            return Spec.ProtoExecutionResult.newBuilder().setExecutionTime(0).setFailed(false).build();
-        }
-
-        private boolean tagsMatch(List<String> tags, Operator tagsAggregation, List<String> allTags) {
-            return new TagMatcher().isMatch(tags, tagsAggregation, allTags);
-        }
-
-        private Spec.ProtoExecutionResult executeHook() {
-            MethodExecutor methodExecutor = new MethodExecutor(manager);
-            if (methodHasArguments(hook.getMethod(), info)) {
-                return methodExecutor.execute(hook.getMethod(), info);
-            }
-            Spec.ProtoExecutionResult result = methodExecutor.execute(hook.getMethod());
-            return result.toBuilder().setRecoverableError(false).build();
+        boolean passed = methodExecutor.execute(invoker, NO_ARGS, result);
+        if (!passed) {
+            // only hooks that are given the execution context can recover from a failure
+            result.setRecoverableError(false);
         }
+        return passed;
     }
 }
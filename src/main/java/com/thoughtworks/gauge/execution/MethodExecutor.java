@@ -23,6 +23,7 @@ import gauge.messages.Spec;
 
 import java.lang.reflect.Method;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class MethodExecutor {
     private ClassInstanceManager instanceManager;
@@ -32,26 +33,68 @@ public class MethodExecutor {
     }
 
     public Spec.ProtoExecutionResult execute(Method method, Object... args) {
-        long startTime = System.currentTimeMillis();
+        return execute(MethodInvoker.of(method), args);
+    }
+
+    public Spec.ProtoExecutionResult execute(MethodInvoker invoker, Object[] args) {
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        execute(invoker, args, result);
+        return result.build();
+    }
+
+    /**
+     * Executes the method and merges its outcome into the given result, which only builds a result of its own if the
+     * method fails.
+     *
+     * @return true if the method passed.
+     */
+    public boolean execute(MethodInvoker invoker, Object[] args, Spec.ProtoExecutionResult.Builder result) {
+        return execute(invoker, args, result, StepTimings.disabled());
+    }
+
+    boolean execute(MethodInvoker invoker, Object[] args, Spec.ProtoExecutionResult.Builder result, StepTimings timings) {
+        long startTime = System.nanoTime();
+        // the phase running when the method throws, which still has to be stopped
+        StepTimings.Phase phase = StepTimings.Phase.INSTANTIATION;
+        long phaseStart = startTime;
         try {
-            Object instance = instanceManager.get(method.getDeclaringClass());
-            method.invoke(instance, args);
-            long endTime = System.currentTimeMillis();
-            return Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(endTime - startTime).build();
+            Object instance = instanceManager.get(invoker.getMethod().getDeclaringClass());
+            timings.stop(phase, phaseStart);
+            phase = StepTimings.Phase.METHOD;
+            phaseStart = timings.start();
+            invoker.invoke(instance, args);
+            timings.stop(phase, phaseStart);
+            phase = null;
+            result.setExecutionTime(result.getExecutionTime() + elapsedMillis(startTime));
+            return true;
         } catch (Throwable e) {
-            boolean recoverable = method.isAnnotationPresent(ContinueOnFailure.class);
-            Class[] continuableExceptions = new Class[]{};
-            if (recoverable) {
-                continuableExceptions = method.getAnnotation(ContinueOnFailure.class).value();
+            if (phase != null) {
+                timings.stop(phase, phaseStart);
             }
-            long endTime = System.currentTimeMillis();
-            return createFailureExecResult(endTime - startTime, e, recoverable, continuableExceptions);
+            long execTime = elapsedMillis(startTime);
+            long failureStart = timings.start();
+            long screenshotStart = timings.start();
+            ByteString screenshot = ByteString.copyFrom(new ScreenshotFactory(instanceManager).getScreenshotBytes());
+            long screenshotTime = timings.stop(StepTimings.Phase.SCREENSHOT, screenshotStart);
+            StepExecutionPlan.merge(result, createFailureExecResult(execTime, e, invoker.getContinueOnFailure(), screenshot));
+            timings.stop(StepTimings.Phase.FAILURE_HANDLING, failureStart + screenshotTime);
+            return false;
         }
     }
 
-    private Spec.ProtoExecutionResult createFailureExecResult(long execTime, Throwable e, boolean recoverable, Class[] continuableExceptions) {
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private Spec.ProtoExecutionResult createFailureExecResult(long execTime, Throwable e, ContinueOnFailure continueOnFailure, ByteString screenshotBytes) {
+        boolean recoverable = continueOnFailure != null;
+        Class[] continuableExceptions = recoverable ? continueOnFailure.value() : new Class[]{};
+        return createFailureExecResult(execTime, e, recoverable, continuableExceptions, screenshotBytes);
+    }
+
+    private Spec.ProtoExecutionResult createFailureExecResult(long execTime, Throwable e, boolean recoverable, Class[] continuableExceptions,
+                                                              ByteString screenshotBytes) {
         Spec.ProtoExecutionResult.Builder builder = Spec.ProtoExecutionResult.newBuilder().setFailed(true);
-        ByteString screenshotBytes = ByteString.copyFrom(new ScreenshotFactory(instanceManager).getScreenshotBytes());
         builder.setScreenShot(screenshotBytes);
         builder.setFailureScreenshot(screenshotBytes);
         if (e.getCause() != null) {
@@ -79,7 +122,7 @@ public class MethodExecutor {
         }
         StringBuilder output = new StringBuilder();
         for (StackTraceElement element : stackTrace) {
-            if (element.getClassName().equals("sun.reflect.NativeMethodAccessorImpl")) {
+            if (isInvocationFrame(element.getClassName())) {
                 break;
             }
             output.append(element.toString()).append("\n");
@@ -87,6 +130,13 @@ public class MethodExecutor {
         return output.toString();
     }
 
+    private boolean isInvocationFrame(String className) {
+        return className.equals(MethodInvoker.class.getName())
+                || className.equals("sun.reflect.NativeMethodAccessorImpl")
+                || className.equals("jdk.internal.reflect.NativeMethodAccessorImpl")
+                || className.equals("jdk.internal.reflect.DirectMethodHandleAccessor");
+    }
+
     public Spec.ProtoExecutionResult executeMethods(Set<Method> methods, Object... args) {
         long totalExecutionTime = 0;
         for (Method method : methods) {
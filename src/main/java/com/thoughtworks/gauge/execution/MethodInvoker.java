@@ -0,0 +1,136 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import com.thoughtworks.gauge.ContinueOnFailure;
+import com.thoughtworks.gauge.ExecutionContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invokes a step or hook method through a {@link MethodHandle} that is created once per method, with what is needed to
+ * report its failure looked up once as well.
+ * <p>
+ * The handle is adapted to a single {@code (Object instance, Object[] args)} shape. Unlike
+ * {@link Method#invoke(Object, Object...)}, it does not go through reflection's slow native accessor for the first
+ * calls of each method, which is all most steps of a suite ever get (see MethodInvokerBenchmark in src/jmh).
+ * Exceptions thrown by the method are wrapped in an {@link InvocationTargetException}, a missing instance is reported
+ * as a {@link NullPointerException} and bad arguments as an {@link IllegalArgumentException}, as
+ * {@link Method#invoke(Object, Object...)} does. Methods that cannot be unreflected with the public lookup fall back to
+ * {@link Method#invoke(Object, Object...)}.
+ * </p>
+ */
+public final class MethodInvoker {
+    private static final Map<Method, MethodInvoker> INVOKERS = new ConcurrentHashMap<>();
+    private static final MethodHandle WRAP_TARGET_EXCEPTION;
+
+    static {
+        try {
+            WRAP_TARGET_EXCEPTION = MethodHandles.lookup().findStatic(MethodInvoker.class, "throwTargetException",
+                    MethodType.methodType(Object.class, Throwable.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Method method;
+    private final MethodHandle handle;
+    private final boolean needsInstance;
+    private final ContinueOnFailure continueOnFailure;
+    private final boolean takesExecutionContext;
+
+    private MethodInvoker(Method method) {
+        this.method = method;
+        this.handle = createHandle(method);
+        this.needsInstance = !Modifier.isStatic(method.getModifiers());
+        this.continueOnFailure = method.getAnnotation(ContinueOnFailure.class);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        this.takesExecutionContext = parameterTypes.length == 1 && parameterTypes[0] == ExecutionContext.class;
+    }
+
+    public static MethodInvoker of(Method method) {
+        return INVOKERS.computeIfAbsent(method, MethodInvoker::new);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the {@link ContinueOnFailure} annotation of the method, or null when it has none.
+     */
+    public ContinueOnFailure getContinueOnFailure() {
+        return continueOnFailure;
+    }
+
+    /**
+     * @return true when the method is a hook that takes the {@link ExecutionContext} as its only argument.
+     */
+    public boolean takesExecutionContext() {
+        return takesExecutionContext;
+    }
+
+    public Object invoke(Object instance, Object[] args) throws InvocationTargetException, IllegalAccessException {
+        if (handle == null) {
+            return method.invoke(instance, args);
+        }
+        if (instance == null && needsInstance) {
+            throw new NullPointerException();
+        }
+        if (args.length != method.getParameterCount()) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        try {
+            return handle.invokeExact(instance, args);
+        } catch (InvocationTargetException e) {
+            throw e;
+        } catch (ClassCastException | NullPointerException | WrongMethodTypeException e) {
+            // Exceptions of the method itself arrive wrapped, so these come from adapting the arguments
+            throw new IllegalArgumentException("argument type mismatch");
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static MethodHandle createHandle(Method method) {
+        MethodHandle target;
+        try {
+            target = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        MethodHandle wrapper = MethodHandles.dropArguments(WRAP_TARGET_EXCEPTION.asType(MethodType.methodType(target.type().returnType(), Throwable.class)),
+                1, target.type().parameterList());
+        target = MethodHandles.catchException(target, Throwable.class, wrapper);
+        if (Modifier.isStatic(method.getModifiers())) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        return target.asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    private static Object throwTargetException(Throwable e) throws InvocationTargetException {
+        throw new InvocationTargetException(e);
+    }
+}
@@ -0,0 +1,169 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import com.thoughtworks.gauge.ClassInstanceManager;
+import com.thoughtworks.gauge.ExecutionContext;
+import com.thoughtworks.gauge.execution.parameters.ParametersExtractor;
+import com.thoughtworks.gauge.execution.parameters.ParsingException;
+import com.thoughtworks.gauge.execution.parameters.parsers.types.TableParameterParser;
+import com.thoughtworks.gauge.hook.Hook;
+import com.thoughtworks.gauge.jfr.RunnerEvents;
+import com.thoughtworks.gauge.registry.HooksRegistry;
+import gauge.messages.Messages;
+import gauge.messages.Spec;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Everything needed to execute one step implementation, resolved once per registry snapshot: the invoker of the
+ * method, its parameter types and the row types of its {@code List<Row>} parameters. The class steps hooks of its class are looked up in {@link HooksRegistry} on every
+ * execution, since hooks are scanned after steps.
+ */
+public final class StepExecutionPlan {
+    private final MethodInvoker invoker;
+    private final Class<?>[] parameterTypes;
+    private final Class<?>[] rowTypes;
+
+    public StepExecutionPlan(Method method) {
+        this.invoker = MethodInvoker.of(method);
+        this.parameterTypes = method.getParameterTypes();
+        this.rowTypes = rowTypesOf(method.getGenericParameterTypes());
+    }
+
+    // null unless a parameter is a list of rows, which the parameter parsers can not tell from its class
+    private static Class<?>[] rowTypesOf(Type[] genericParameterTypes) {
+        Class<?>[] rowTypes = null;
+        for (int i = 0; i < genericParameterTypes.length; i++) {
+            Class<?> rowType = TableParameterParser.rowTypeOf(genericParameterTypes[i]);
+            if (rowType != null) {
+                rowTypes = rowTypes != null ? rowTypes : new Class<?>[genericParameterTypes.length];
+                rowTypes[i] = rowType;
+            }
+        }
+        return rowTypes;
+    }
+
+    public Method getMethod() {
+        return invoker.getMethod();
+    }
+
+    /**
+     * Runs the before class steps hooks, the step itself (unless a hook failed) and the after class steps hooks,
+     * merging their results with {@link #merge(Spec.ProtoExecutionResult.Builder, Spec.ProtoExecutionResult)}.
+     */
+    public Spec.ProtoExecutionResult execute(Messages.ExecuteStepRequest request, ClassInstanceManager manager, ParametersExtractor extractor) {
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        execute(request, manager, extractor, result);
+        return result.build();
+    }
+
+    /**
+     * Executes the step as {@link #execute(Messages.ExecuteStepRequest, ClassInstanceManager, ParametersExtractor)}
+     * does, merging every outcome into the given result instead of building a result for each.
+     */
+    public void execute(Messages.ExecuteStepRequest request, ClassInstanceManager manager, ParametersExtractor extractor,
+                        Spec.ProtoExecutionResult.Builder result) {
+        execute(request, manager, extractor, result, StepTimings.disabled());
+    }
+
+    /**
+     * Executes the step, adding the time of each of its phases to the given timings.
+     */
+    public void execute(Messages.ExecuteStepRequest request, ClassInstanceManager manager, ParametersExtractor extractor,
+                        Spec.ProtoExecutionResult.Builder result, StepTimings timings) {
+        Class<?> stepClass = invoker.getMethod().getDeclaringClass();
+        long hooksStart = timings.start();
+        executeHooks(HooksRegistry.getBeforeClassStepsHooksOfClass(stepClass), manager, result);
+        timings.stop(StepTimings.Phase.BEFORE_CLASS_HOOKS, hooksStart);
+        if (!result.getFailed()) {
+            Object event = RunnerEvents.beginStep();
+            executeStep(request, manager, extractor, result, timings);
+            RunnerEvents.commitStep(event, request.getActualStepText(), result.getFailed());
+        }
+        hooksStart = timings.start();
+        executeHooks(HooksRegistry.getAfterClassStepsHooksOfClass(stepClass), manager, result);
+        timings.stop(StepTimings.Phase.AFTER_CLASS_HOOKS, hooksStart);
+    }
+
+    private void executeStep(Messages.ExecuteStepRequest request, ClassInstanceManager manager, ParametersExtractor extractor,
+                             Spec.ProtoExecutionResult.Builder result, StepTimings timings) {
+        if (parameterTypes.length != request.getParametersCount()) {
+            merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(true).setExecutionTime(0)
+                    .setErrorMessage(String.format(
+                            "Argument length mismatch for: %s. Actual Count: [%d], Expected Count: [%d]",
+                            request.getActualStepText(), parameterTypes.length, request.getParametersCount()))
+                    .build());
+            return;
+        }
+        long conversionStart = timings.start();
+        Object event = RunnerEvents.beginParameterConversion();
+        Object[] args = null;
+        try {
+            args = mapRows(extractor.extract(request.getParametersList(), parameterTypes));
+        } catch (ParsingException e) {
+            merge(result, e.getExecutionResult());
+            return;
+        } finally {
+            timings.stop(StepTimings.Phase.PARAMETER_CONVERSION, conversionStart);
+            RunnerEvents.commitParameterConversion(event, request.getActualStepText(), parameterTypes.length, args == null);
+        }
+        new MethodExecutor(manager).execute(invoker, args, result, timings);
+    }
+
+    private Object[] mapRows(Object[] args) throws ParsingException {
+        if (rowTypes == null) {
+            return args;
+        }
+        for (int i = 0; i < args.length; i++) {
+            List<?> rows = rowTypes[i] != null ? TableParameterParser.rowsAs(args[i], rowTypes[i]) : null;
+            if (rows != null) {
+                args[i] = rows;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Merges a result into the result of the steps and hooks executed before it, in place: the execution times add up
+     * and the first failure is kept.
+     */
+    static void merge(Spec.ProtoExecutionResult.Builder result, Spec.ProtoExecutionResult execResult) {
+        result.setExecutionTime(result.getExecutionTime() + execResult.getExecutionTime());
+        if (!execResult.getFailed()) {
+            return;
+        }
+        if (!result.getFailed()) {
+            result.setFailed(true);
+            result.setErrorType(execResult.getErrorType());
+            result.setErrorMessage(execResult.getErrorMessage());
+            result.setScreenShot(execResult.getScreenShot());
+            result.setFailureScreenshot(execResult.getFailureScreenshot());
+            result.setStackTrace(execResult.getStackTrace());
+            result.setRecoverableError(execResult.getRecoverableError());
+        } else if (result.getRecoverableError()) {
+            result.setRecoverableError(execResult.getRecoverableError());
+        }
+    }
+
+    private static void executeHooks(List<Hook> hooks, ClassInstanceManager manager, Spec.ProtoExecutionResult.Builder result) {
+        if (!hooks.isEmpty()) {
+            new HooksExecutor(hooks, new ExecutionContext(), manager).execute(result);
+        }
+    }
+}
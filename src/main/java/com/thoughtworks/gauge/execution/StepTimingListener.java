@@ -0,0 +1,30 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+/**
+ * Receives the {@link StepTimings} of every executed step, to see where the time of the runner goes. An implementation
+ * in the project is picked up when the classpath is scanned, or one can be registered with
+ * {@link StepTimings#setListener(StepTimingListener)}.
+ */
+public interface StepTimingListener {
+
+    /**
+     * Called on the thread that executed the step, right after it ran. The timings are reused for the next step on
+     * that thread, so anything kept must be copied before returning.
+     */
+    void stepExecuted(StepTimings timings);
+}
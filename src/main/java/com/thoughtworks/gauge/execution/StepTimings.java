@@ -0,0 +1,152 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import java.util.Arrays;
+
+/**
+ * Where the time of one step execution went, in nanoseconds of {@link System#nanoTime()}, broken down by
+ * {@link Phase}. The timings are delivered to the {@link StepTimingListener} once the step has run.
+ * <p>
+ * Every thread reuses a single instance, so collecting timings does not allocate. Nothing is timed while no listener
+ * is registered.
+ * </p>
+ */
+public final class StepTimings {
+
+    /**
+     * The phases of a step execution. They do not overlap, so they add up to the time spent in the runner.
+     */
+    public enum Phase {
+        /** Finding the implementation of the step text. */
+        LOOKUP,
+        /** Getting the instance of the class implementing the step. */
+        INSTANTIATION,
+        /** Converting the step parameters to the types of the method parameters. */
+        PARAMETER_CONVERSION,
+        /** Running the before class steps hooks. */
+        BEFORE_CLASS_HOOKS,
+        /** Running the step method itself. */
+        METHOD,
+        /** Running the after class steps hooks. */
+        AFTER_CLASS_HOOKS,
+        /** Building the result of a failed step, apart from its screenshot. */
+        FAILURE_HANDLING,
+        /** Capturing the screenshot of a failed step. */
+        SCREENSHOT
+    }
+
+    private static final StepTimings DISABLED = new StepTimings(false);
+    private static final ThreadLocal<StepTimings> TIMINGS = ThreadLocal.withInitial(() -> new StepTimings(true));
+    private static volatile StepTimingListener listener;
+
+    private final boolean enabled;
+    private final long[] nanos = new long[Phase.values().length];
+    private String stepText;
+
+    private StepTimings(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registers the listener to deliver the timings of every step to, or stops timing steps if it is null.
+     */
+    public static void setListener(StepTimingListener stepTimingListener) {
+        listener = stepTimingListener;
+    }
+
+    /**
+     * Starts timing a step on the current thread.
+     *
+     * @return the timings of the thread, reset, or timings that record nothing if no listener is registered.
+     */
+    public static StepTimings begin(String stepText) {
+        if (listener == null) {
+            return DISABLED;
+        }
+        StepTimings timings = TIMINGS.get();
+        Arrays.fill(timings.nanos, 0);
+        timings.stepText = stepText;
+        return timings;
+    }
+
+    static StepTimings disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * @return the start of a phase, to pass to {@link #stop(Phase, long)}.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since the start to the phase.
+     *
+     * @return the time added, or 0 if nothing is timed.
+     */
+    public long stop(Phase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        nanos[phase.ordinal()] += elapsed;
+        return elapsed;
+    }
+
+    /**
+     * Delivers the timings to the listener. A failing listener does not fail the step.
+     */
+    public void end() {
+        StepTimingListener current = listener;
+        if (!enabled || current == null) {
+            return;
+        }
+        try {
+            current.stepExecuted(this);
+        } catch (RuntimeException e) {
+            System.err.println(String.format("Step timing listener %s failed: %s", current.getClass().getName(), e));
+        } finally {
+            stepText = null;
+        }
+    }
+
+    public String getStepText() {
+        return stepText;
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (long phaseNanos : nanos) {
+            total += phaseNanos;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.valueOf(stepText));
+        for (Phase phase : Phase.values()) {
+            builder.append(' ').append(phase).append('=').append(getNanos(phase)).append("ns");
+        }
+        return builder.toString();
+    }
+}
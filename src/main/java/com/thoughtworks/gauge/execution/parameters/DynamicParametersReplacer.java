@@ -4,13 +4,14 @@ import gauge.messages.Spec;
 import org.apache.commons.lang.StringUtils;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * Replaces the placeholders of a step text, such as {@code <name>}, with the quoted values of its dynamic parameters in
+ * order. The text is scanned once: each placeholder is looked for after the previous one, so a value that itself looks
+ * like a placeholder is left as it is.
+ */
 public final class DynamicParametersReplacer {
 
-    private static final Pattern REPLACER_PATTERN = Pattern.compile("<(.*?)>");
-
     private DynamicParametersReplacer() {
 
     }
@@ -20,20 +21,45 @@ public final class DynamicParametersReplacer {
             return stepText;
         }
 
+        StringBuilder replaced = null;
+        int position = 0;
         for (Spec.Parameter parameter : parameters) {
-            if (parameter.getParameterType() == Spec.Parameter.ParameterType.Dynamic) {
-                stepText = findAndReplacePlaceholder(stepText, parameter.getValue());
+            if (parameter.getParameterType() != Spec.Parameter.ParameterType.Dynamic) {
+                continue;
+            }
+            int start = placeholderStart(stepText, position);
+            if (start < 0) {
+                break;
+            }
+            if (replaced == null) {
+                replaced = new StringBuilder(stepText.length() + parameter.getValue().length());
             }
+            replaced.append(stepText, position, start).append('"').append(parameter.getValue()).append('"');
+            position = stepText.indexOf('>', start) + 1;
         }
 
-        return stepText;
+        return replaced == null ? stepText : replaced.append(stepText, position, stepText.length()).toString();
     }
 
-    private static String findAndReplacePlaceholder(String stepText, String parameterValue) {
-        Matcher matcher = REPLACER_PATTERN.matcher(stepText);
-        if (matcher.find()) {
-            return matcher.replaceFirst(Matcher.quoteReplacement("\"" + parameterValue + "\""));
+    /**
+     * @return the position of the next '<' from the given one that is closed by a '>' on the same line, or -1.
+     */
+    private static int placeholderStart(String stepText, int from) {
+        for (int start = stepText.indexOf('<', from); start >= 0; start = stepText.indexOf('<', start + 1)) {
+            for (int i = start + 1; i < stepText.length(); i++) {
+                char c = stepText.charAt(i);
+                if (c == '>') {
+                    return start;
+                }
+                if (isLineTerminator(c)) {
+                    break;
+                }
+            }
         }
-        return stepText;
+        return -1;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 }
@@ -44,8 +44,17 @@ import gauge.messages.Spec;
  *         Assert.assertEquals(person.getUserName(), "John Doe");
  *     }
  * </code>
+ *
+ * <tt>canParse</tt> is asked for every argument, so it may look at <tt>parameter.getValue()</tt>. A parser whose
+ * <tt>canParse</tt> only looks at the Java type and the kind of the parameter, like the one above, can override
+ * <tt>isValueDependent</tt> to return false; it is then asked once per type and kind.
  */
 public abstract class CustomParameterParser<T> implements ParameterParser {
+    @Override
+    public boolean isValueDependent() {
+        return true;
+    }
+
     @Override
     public final T parse(Class<?> parameterType, Spec.Parameter parameter) throws ParsingException {
         try {
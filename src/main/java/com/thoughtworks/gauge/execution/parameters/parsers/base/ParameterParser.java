@@ -7,4 +7,13 @@ public interface ParameterParser {
     boolean canParse(Class<?> parameterType, Parameter parameter);
 
     Object parse(Class<?> parameterType, Parameter parameter) throws ParsingException;
+
+    /**
+     * @return true if {@link #canParse(Class, Parameter)} looks at the value of the parameter. Parsers that only look
+     * at the Java type and the kind of the parameter (static, dynamic, table...) keep the default, which lets
+     * {@link ParameterParsingChain} resolve them once per type and kind instead of asking them for every argument.
+     */
+    default boolean isValueDependent() {
+        return false;
+    }
 }
@@ -1,30 +1,41 @@
 package com.thoughtworks.gauge.execution.parameters.parsers.base;
 
-import com.thoughtworks.gauge.ClasspathHelper;
 import com.thoughtworks.gauge.execution.parameters.ParsingException;
 import com.thoughtworks.gauge.execution.parameters.parsers.converters.TableConverter;
 import com.thoughtworks.gauge.execution.parameters.parsers.types.EnumParameterParser;
 import com.thoughtworks.gauge.execution.parameters.parsers.types.PrimitiveParameterParser;
 import com.thoughtworks.gauge.execution.parameters.parsers.types.PrimitivesConverter;
 import com.thoughtworks.gauge.execution.parameters.parsers.types.TableParameterParser;
+import com.thoughtworks.gauge.scan.ClasspathScanner;
 import gauge.messages.Spec.Parameter;
-import org.reflections.Configuration;
-import org.reflections.Reflections;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.util.ConfigurationBuilder;
-import org.reflections.util.FilterBuilder;
 
 import javax.annotation.Nullable;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Parses step arguments with the first parser that can parse them: custom parsers first, then tables, enums and
+ * primitives; anything else is passed as the string value.
+ * <p>
+ * The parser for a Java type and parameter kind is resolved on first use and cached, so converting an argument is a
+ * single call. The chain is only walked per argument from the first parser that declares itself
+ * {@link ParameterParser#isValueDependent() value dependent}.
+ * </p>
+ */
 public class ParameterParsingChain implements ParameterParser {
+    private static final Parameter.ParameterType[] KINDS = Parameter.ParameterType.values();
 
-    private List<ParameterParser> chain = new LinkedList<>();
+    private List<ParameterParser> chain = new ArrayList<>();
+    private final ClassValue<ParameterParser[]> resolved = new ClassValue<ParameterParser[]>() {
+        @Override
+        protected ParameterParser[] computeValue(Class<?> parameterType) {
+            return new ParameterParser[KINDS.length];
+        }
+    };
 
     public ParameterParsingChain() {
-        createReflections().getSubTypesOf(CustomParameterParser.class).stream()
+        ClasspathScanner.subTypesOf(CustomParameterParser.class).stream()
                 .map(this::asCustomParameterParser)
                 .filter(Objects::nonNull)
                 .forEach(chain::add);
@@ -33,12 +44,8 @@ public class ParameterParsingChain implements ParameterParser {
         chain.add(new PrimitiveParameterParser(new PrimitivesConverter()));
     }
 
-    private Reflections createReflections() {
-        Configuration config = new ConfigurationBuilder()
-                .setScanners(new SubTypesScanner())
-                .addUrls(ClasspathHelper.getUrls())
-                .filterInputsBy(new FilterBuilder().include(".+\\.class"));
-        return new Reflections(config);
+    ParameterParsingChain(List<ParameterParser> parsers) {
+        chain.addAll(parsers);
     }
 
     private @Nullable
@@ -57,12 +64,56 @@ public class ParameterParsingChain implements ParameterParser {
     }
 
     public Object parse(Class<?> parameterType, Parameter parameter) throws ParsingException {
-        for (ParameterParser parser : chain) {
-            if (parser.canParse(parameterType, parameter)) {
-                return parser.parse(parameterType, parameter);
+        ParameterParser[] parsers = resolved.get(parameterType);
+        int kind = parameter.getParameterType().ordinal();
+        ParameterParser parser = parsers[kind];
+        if (parser == null) {
+            // resolving is idempotent and parsers are immutable, so a concurrent resolution is harmless
+            parser = resolve(parameterType, parameter.getParameterType());
+            parsers[kind] = parser;
+        }
+        return parser.parse(parameterType, parameter);
+    }
+
+    private ParameterParser resolve(Class<?> parameterType, Parameter.ParameterType kind) {
+        if (kind == Parameter.ParameterType.UNRECOGNIZED) {
+            return new RemainingChain(0);
+        }
+        Parameter parameterOfKind = Parameter.newBuilder().setParameterType(kind).build();
+        for (int i = 0; i < chain.size(); i++) {
+            ParameterParser parser = chain.get(i);
+            if (parser.isValueDependent()) {
+                return new RemainingChain(i);
+            }
+            if (parser.canParse(parameterType, parameterOfKind)) {
+                return parser;
+            }
+        }
+        return new RemainingChain(chain.size());
+    }
+
+    private final class RemainingChain implements ParameterParser {
+        private final int from;
+
+        RemainingChain(int from) {
+            this.from = from;
+        }
+
+        @Override
+        public boolean canParse(Class<?> parameterType, Parameter parameter) {
+            return true;
+        }
+
+        @Override
+        public Object parse(Class<?> parameterType, Parameter parameter) throws ParsingException {
+            for (int i = from; i < chain.size(); i++) {
+                ParameterParser parser = chain.get(i);
+                if (parser.canParse(parameterType, parameter)) {
+                    return parser.parse(parameterType, parameter);
+                }
             }
+            return parameter.getValue();
         }
-        return parameter.getValue();
     }
 
 }
@@ -1,8 +1,5 @@
 package com.thoughtworks.gauge.execution.parameters.parsers.converters;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.thoughtworks.gauge.Table;
 
 import gauge.messages.Spec;
@@ -18,23 +15,8 @@ public class TableConverter implements StringToPrimitiveConverter {
         if (protoTable.getHeaders() == null) {
             throw new RuntimeException("Invalid table passed");
         }
-        Spec.ProtoTableRow headerRow = protoTable.getHeaders();
-        List<String> headers = getTableRowFor(headerRow);
-        Table table = new Table(headers);
-
-        for (int i = 0; i < protoTable.getRowsCount(); i++) {
-            Spec.ProtoTableRow protoRow = protoTable.getRows(i);
-            table.addRow(getTableRowFor(protoRow));
-        }
-        return table;
-
-    }
-
-    private List<String> getTableRowFor(Spec.ProtoTableRow tableRow) {
-        List<String> row = new ArrayList<>();
-        for (int i = 0; i < tableRow.getCellsCount(); i++) {
-            row.add(tableRow.getCells(i));
-        }
-        return row;
+        // Not cached between steps: Table.from reads no cells, while finding an equal table sent with an earlier step
+        // would have to read all of them, and every step gets the same proto table as a new message.
+        return Table.from(protoTable);
     }
 }
@@ -2,24 +2,31 @@ package com.thoughtworks.gauge.execution.parameters.parsers.types;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 import com.thoughtworks.gauge.execution.parameters.parsers.converters.StringToPrimitiveConverter;
 import gauge.messages.Spec.Parameter;
 
 public class PrimitivesConverter {
     private Map<Class<?>, StringToPrimitiveConverter> primitiveConverters = new HashMap<>();
+    private Map<Class<?>, Function<String, Object>> stringConverters = new HashMap<>();
 
     public PrimitivesConverter() {
-        primitiveConverters.put(int.class, source -> Integer.parseInt(source.getValue()));
-        primitiveConverters.put(Integer.class, source -> Integer.parseInt(source.getValue()));
-        primitiveConverters.put(boolean.class, source -> Boolean.parseBoolean(source.getValue()));
-        primitiveConverters.put(Boolean.class, source -> Boolean.parseBoolean(source.getValue()));
-        primitiveConverters.put(long.class, source -> Long.parseLong(source.getValue()));
-        primitiveConverters.put(Long.class, source -> Long.parseLong(source.getValue()));
-        primitiveConverters.put(float.class, source -> Float.parseFloat(source.getValue()));
-        primitiveConverters.put(Float.class, source -> Float.parseFloat(source.getValue()));
-        primitiveConverters.put(double.class, source -> Double.parseDouble(source.getValue()));
-        primitiveConverters.put(Double.class, source -> Double.parseDouble(source.getValue()));
+        add(int.class, Integer::parseInt);
+        add(Integer.class, Integer::parseInt);
+        add(boolean.class, Boolean::parseBoolean);
+        add(Boolean.class, Boolean::parseBoolean);
+        add(long.class, Long::parseLong);
+        add(Long.class, Long::parseLong);
+        add(float.class, Float::parseFloat);
+        add(Float.class, Float::parseFloat);
+        add(double.class, Double::parseDouble);
+        add(Double.class, Double::parseDouble);
+    }
+
+    private void add(Class<?> type, Function<String, Object> converter) {
+        stringConverters.put(type, converter);
+        primitiveConverters.put(type, source -> converter.apply(source.getValue()));
     }
 
     public boolean contains(Class<?> parameterType) {
@@ -29,4 +36,12 @@ public class PrimitivesConverter {
     public Object convert(Class<?> parameterType, Parameter parameter) throws Exception {
         return primitiveConverters.get(parameterType).convert(parameter);
     }
+
+    /**
+     * @return the conversion from a string value to the given type, or null if the type is not a primitive or a
+     * primitive wrapper.
+     */
+    public Function<String, Object> converterFor(Class<?> type) {
+        return stringConverters.get(type);
+    }
 }
@@ -1,10 +1,25 @@
 package com.thoughtworks.gauge.execution.parameters.parsers.types;
 
+import com.google.common.base.Throwables;
+import com.thoughtworks.gauge.Table;
+import com.thoughtworks.gauge.execution.parameters.ParsingException;
 import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParser;
 import com.thoughtworks.gauge.execution.parameters.parsers.converters.TableConverter;
+import gauge.messages.Spec;
 import gauge.messages.Spec.Parameter;
 import gauge.messages.Spec.Parameter.ParameterType;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Converts table arguments to a {@link Table}. A table passed to an array of a row type (for example {@code Order[]})
+ * has its rows mapped with {@link Table#rowsAs(Class)}; a {@code List<Order>} parameter is mapped the same way by the
+ * step execution, which knows the generic type of the parameter, through {@link #rowsAs(Object, Class)}.
+ */
 public class TableParameterParser implements ParameterParser {
     private TableConverter tableConverter;
 
@@ -19,7 +34,59 @@ public class TableParameterParser implements ParameterParser {
     }
 
     @Override
-    public Object parse(Class<?> parameterType, Parameter parameter) {
-        return tableConverter.convert(parameter);
+    public Object parse(Class<?> parameterType, Parameter parameter) throws ParsingException {
+        Object table = tableConverter.convert(parameter);
+        Class<?> rowType = parameterType.getComponentType();
+        if (!isRowType(rowType) || !(table instanceof Table)) {
+            return table;
+        }
+        List<?> rows = rowsAs(table, rowType);
+        Object array = Array.newInstance(rowType, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Array.set(array, i, rows.get(i));
+        }
+        return array;
+    }
+
+    /**
+     * @param parameterType - the generic type of a step parameter
+     * @return the row type of a {@code List}, {@code Collection} or {@code Iterable} parameter, or null if it is none
+     */
+    public static Class<?> rowTypeOf(Type parameterType) {
+        if (!(parameterType instanceof ParameterizedType)) {
+            return null;
+        }
+        ParameterizedType type = (ParameterizedType) parameterType;
+        Type rawType = type.getRawType();
+        if (rawType != List.class && rawType != Collection.class && rawType != Iterable.class) {
+            return null;
+        }
+        Type elementType = type.getActualTypeArguments()[0];
+        return elementType instanceof Class && isRowType((Class<?>) elementType) ? (Class<?>) elementType : null;
+    }
+
+    /**
+     * Maps the rows of a table argument to objects of a row type.
+     *
+     * @param argument - an argument converted by this parser
+     * @return the rows, or null if the argument is not a {@link Table}
+     * @throws ParsingException if the rows can not be mapped to the type
+     */
+    public static List<?> rowsAs(Object argument, Class<?> rowType) throws ParsingException {
+        if (!(argument instanceof Table)) {
+            return null;
+        }
+        try {
+            return ((Table) argument).rowsAs(rowType);
+        } catch (IllegalArgumentException e) {
+            throw new ParsingException(Spec.ProtoExecutionResult.newBuilder().setFailed(true).setExecutionTime(0)
+                    .setStackTrace(Throwables.getStackTraceAsString(e))
+                    .setErrorMessage(String.format("Failed to convert table to rows of type %s. %s", rowType.getName(), e.getMessage()))
+                    .build());
+        }
+    }
+
+    private static boolean isRowType(Class<?> type) {
+        return type != null && !type.isPrimitive() && type != String.class;
     }
 }
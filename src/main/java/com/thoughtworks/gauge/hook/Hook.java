@@ -16,21 +16,25 @@
 package com.thoughtworks.gauge.hook;
 
 import com.thoughtworks.gauge.Operator;
+import com.thoughtworks.gauge.tag.TagExpression;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 public class Hook implements Comparable<Hook> {
     private Method method;
     private List<String> tags = new ArrayList<String>();
     private Operator operator = Operator.AND;
+    private TagExpression tagExpression = TagExpression.of(tags, operator);
 
     public Hook(Method method, String[] tags, Operator operator) {
         this.method = method;
         this.tags = Arrays.asList(tags);
         this.operator = operator;
+        this.tagExpression = TagExpression.of(this.tags, operator);
     }
 
     public Hook(Method method) {
@@ -53,6 +57,14 @@ public class Hook implements Comparable<Hook> {
         return !tags.isEmpty();
     }
 
+    /**
+     * @param executionTags - interned tags of the current spec and scenario, see {@link com.thoughtworks.gauge.tag.TagIds}.
+     * @return true if the hook should run for the given tags.
+     */
+    public boolean appliesTo(BitSet executionTags) {
+        return tagExpression.matches(executionTags);
+    }
+
     @Override
     public int compareTo(Hook h) {
         if (this.isTagged() && !h.isTagged()) {
@@ -0,0 +1,96 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.hook;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, ordered list of hooks of one type that remembers which of its hooks apply to each set of execution tags
+ * it has been asked about, so the hooks of a spec or scenario are selected once rather than on every step. At most
+ * {@link #MAX_CACHED_TAG_SETS} tag sets are remembered; the hooks of further ones are selected on every call.
+ */
+public final class HookList extends AbstractList<Hook> implements RandomAccess {
+    public static final HookList EMPTY = new HookList(new Hook[0]);
+    static final int MAX_CACHED_TAG_SETS = 256;
+
+    private final Hook[] hooks;
+    private final boolean tagged;
+    private final Map<BitSet, List<Hook>> applicableHooks = new ConcurrentHashMap<>();
+
+    public HookList(Hook[] hooks) {
+        this.hooks = hooks;
+        boolean anyTagged = false;
+        for (Hook hook : hooks) {
+            anyTagged |= hook.isTagged();
+        }
+        this.tagged = anyTagged;
+    }
+
+    public static HookList of(List<Hook> hooks) {
+        return hooks instanceof HookList ? (HookList) hooks : new HookList(hooks.toArray(new Hook[0]));
+    }
+
+    @Override
+    public Hook get(int index) {
+        return hooks[index];
+    }
+
+    @Override
+    public int size() {
+        return hooks.length;
+    }
+
+    /**
+     * @return true if any of the hooks only runs for some tags.
+     */
+    public boolean hasTaggedHooks() {
+        return tagged;
+    }
+
+    /**
+     * @param executionTags - the interned spec and scenario tags of the current execution; must not be changed afterwards.
+     * @return the hooks that apply to the given tags, in execution order.
+     */
+    public List<Hook> applicableTo(BitSet executionTags) {
+        if (!tagged) {
+            return this;
+        }
+        List<Hook> applicable = applicableHooks.get(executionTags);
+        if (applicable != null) {
+            return applicable;
+        }
+        if (applicableHooks.size() >= MAX_CACHED_TAG_SETS) {
+            return select(executionTags);
+        }
+        return applicableHooks.computeIfAbsent((BitSet) executionTags.clone(), this::select);
+    }
+
+    private List<Hook> select(BitSet executionTags) {
+        List<Hook> applicable = new ArrayList<>(hooks.length);
+        for (Hook hook : hooks) {
+            if (hook.appliesTo(executionTags)) {
+                applicable.add(hook);
+            }
+        }
+        return Collections.unmodifiableList(applicable);
+    }
+}
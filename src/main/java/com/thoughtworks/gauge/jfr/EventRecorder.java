@@ -0,0 +1,49 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.jfr;
+
+import java.lang.reflect.Method;
+
+/**
+ * Emits the events of {@link RunnerEvents}. Every {@code begin} method returns null if the event is not recorded.
+ */
+interface EventRecorder {
+    boolean isDispatchEnabled();
+
+    Object beginDispatch();
+
+    void commitDispatch(Object event, String messageType, int size, long decodeNanos, long processNanos, long writeNanos);
+
+    Object beginStep();
+
+    void commitStep(Object event, String stepText, boolean failed);
+
+    Object beginHook();
+
+    void commitHook(Object event, Method hook, boolean failed);
+
+    Object beginParameterConversion();
+
+    void commitParameterConversion(Object event, String stepText, int parameterCount, boolean failed);
+
+    Object beginClasspathScan();
+
+    void commitClasspathScan(Object event, String phase, Object target);
+
+    Object beginScreenshot();
+
+    void commitScreenshot(Object event, boolean custom, int size);
+}
@@ -0,0 +1,190 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.jfr;
+
+import java.lang.reflect.Method;
+
+/**
+ * Emits Java Flight Recorder events for the hot paths of the runner, so that message dispatch, steps, hooks,
+ * parameter conversion, classpath scanning and screenshots show up in JFR recordings.
+ * <p>
+ * Events are only referenced through this class, which also runs on JVMs without {@code jdk.jfr}: the JFR events are
+ * built from {@code src/main/java11} on Java 11 and later only, and loaded by name, falling back to recording nothing.
+ * Release builds on an older JDK fail rather than ship a jar without the events (see the README).
+ * Every {@code begin} method returns null unless JFR is available and the event is enabled in a running recording, and
+ * every {@code commit} method ignores null, so that nothing is allocated or timed while recording is off:
+ * </p>
+ * <pre>
+ * Object event = RunnerEvents.beginStep();
+ * ...
+ * RunnerEvents.commitStep(event, stepText, failed);
+ * </pre>
+ */
+public final class RunnerEvents {
+    private static final String JFR_RECORDER = "com.thoughtworks.gauge.jfr.JfrRunnerEvents";
+    private static final EventRecorder RECORDER = loadRecorder();
+
+    private RunnerEvents() {
+    }
+
+    /**
+     * @return true if JFR events can be emitted on this JVM.
+     */
+    public static boolean isAvailable() {
+        return !(RECORDER instanceof NoEvents);
+    }
+
+    private static EventRecorder loadRecorder() {
+        try {
+            Class.forName("jdk.jfr.Event", false, RunnerEvents.class.getClassLoader());
+            return (EventRecorder) Class.forName(JFR_RECORDER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new NoEvents();
+        }
+    }
+
+    /**
+     * @return true if message dispatch events are recorded, so that decoding has to be timed.
+     */
+    public static boolean isDispatchEnabled() {
+        return RECORDER.isDispatchEnabled();
+    }
+
+    public static Object beginDispatch() {
+        return RECORDER.beginDispatch();
+    }
+
+    public static void commitDispatch(Object event, String messageType, int size, long decodeNanos, long processNanos, long writeNanos) {
+        if (event != null) {
+            RECORDER.commitDispatch(event, messageType, size, decodeNanos, processNanos, writeNanos);
+        }
+    }
+
+    public static Object beginStep() {
+        return RECORDER.beginStep();
+    }
+
+    public static void commitStep(Object event, String stepText, boolean failed) {
+        if (event != null) {
+            RECORDER.commitStep(event, stepText, failed);
+        }
+    }
+
+    public static Object beginHook() {
+        return RECORDER.beginHook();
+    }
+
+    public static void commitHook(Object event, Method hook, boolean failed) {
+        if (event != null) {
+            RECORDER.commitHook(event, hook, failed);
+        }
+    }
+
+    public static Object beginParameterConversion() {
+        return RECORDER.beginParameterConversion();
+    }
+
+    public static void commitParameterConversion(Object event, String stepText, int parameterCount, boolean failed) {
+        if (event != null) {
+            RECORDER.commitParameterConversion(event, stepText, parameterCount, failed);
+        }
+    }
+
+    public static Object beginClasspathScan() {
+        return RECORDER.beginClasspathScan();
+    }
+
+    /**
+     * @param phase - what was done, eg. "index", "cache" or "scan" of a classpath entry
+     * @param target - what it was done to, eg. the classpath entry or the scanner; only turned into a string if recorded
+     */
+    public static void commitClasspathScan(Object event, String phase, Object target) {
+        if (event != null) {
+            RECORDER.commitClasspathScan(event, phase, target);
+        }
+    }
+
+    public static Object beginScreenshot() {
+        return RECORDER.beginScreenshot();
+    }
+
+    public static void commitScreenshot(Object event, boolean custom, int size) {
+        if (event != null) {
+            RECORDER.commitScreenshot(event, custom, size);
+        }
+    }
+
+    private static final class NoEvents implements EventRecorder {
+        @Override
+        public boolean isDispatchEnabled() {
+            return false;
+        }
+
+        @Override
+        public Object beginDispatch() {
+            return null;
+        }
+
+        @Override
+        public void commitDispatch(Object event, String messageType, int size, long decodeNanos, long processNanos, long writeNanos) {
+        }
+
+        @Override
+        public Object beginStep() {
+            return null;
+        }
+
+        @Override
+        public void commitStep(Object event, String stepText, boolean failed) {
+        }
+
+        @Override
+        public Object beginHook() {
+            return null;
+        }
+
+        @Override
+        public void commitHook(Object event, Method hook, boolean failed) {
+        }
+
+        @Override
+        public Object beginParameterConversion() {
+            return null;
+        }
+
+        @Override
+        public void commitParameterConversion(Object event, String stepText, int parameterCount, boolean failed) {
+        }
+
+        @Override
+        public Object beginClasspathScan() {
+            return null;
+        }
+
+        @Override
+        public void commitClasspathScan(Object event, String phase, Object target) {
+        }
+
+        @Override
+        public Object beginScreenshot() {
+            return null;
+        }
+
+        @Override
+        public void commitScreenshot(Object event, boolean custom, int size) {
+        }
+    }
+}
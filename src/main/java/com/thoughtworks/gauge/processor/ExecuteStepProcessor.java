@@ -18,36 +18,45 @@ package com.thoughtworks.gauge.processor;
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.MessageCollector;
 import com.thoughtworks.gauge.ScreenshotCollector;
-import com.thoughtworks.gauge.execution.ExecutionPipeline;
-import com.thoughtworks.gauge.execution.HookExecutionStage;
-import com.thoughtworks.gauge.execution.StepExecutionStage;
+import com.thoughtworks.gauge.execution.StepExecutionPlan;
+import com.thoughtworks.gauge.execution.StepTimings;
+import com.thoughtworks.gauge.execution.parameters.ParametersExtractor;
 import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParsingChain;
-import com.thoughtworks.gauge.registry.HooksRegistry;
 import com.thoughtworks.gauge.registry.StepRegistry;
 import gauge.messages.Messages;
 import gauge.messages.Spec;
 
-import java.lang.reflect.Method;
-
 public class ExecuteStepProcessor extends MethodExecutionMessageProcessor implements IMessageProcessor {
 
-    private final ParameterParsingChain chain;
+    private final ParametersExtractor parametersExtractor;
     private StepRegistry registry;
 
     public ExecuteStepProcessor(ClassInstanceManager instanceManager, ParameterParsingChain chain, StepRegistry stepRegistry) {
         super(instanceManager);
-        this.chain = chain;
+        this.parametersExtractor = new ParametersExtractor(chain);
         this.registry = stepRegistry;
     }
 
     public Messages.Message process(Messages.Message message) {
-        Method method = registry.get(message.getExecuteStepRequest().getParsedStepText());
-        ExecutionPipeline pipeline = new ExecutionPipeline(new HookExecutionStage(HooksRegistry.getBeforeClassStepsHooksOfClass(method.getDeclaringClass()), getInstanceManager()));
-        pipeline.addStages(new StepExecutionStage(message.getExecuteStepRequest(), getInstanceManager(), chain, registry),
-                new HookExecutionStage(HooksRegistry.getAfterClassStepsHooksOfClass(method.getDeclaringClass()), getInstanceManager()));
-        Spec.ProtoExecutionResult executionResult = pipeline.start();
-        Spec.ProtoExecutionResult protoExecutionResult = new MessageCollector().addPendingMessagesTo(executionResult);
-        protoExecutionResult = new ScreenshotCollector().addPendingScreenshotTo(protoExecutionResult);
-        return createMessageWithExecutionStatusResponse(message, protoExecutionResult);
+        Messages.ExecuteStepRequest request = message.getExecuteStepRequest();
+        StepTimings timings = StepTimings.begin(request.getParsedStepText());
+        long lookupStart = timings.start();
+        StepExecutionPlan plan = registry.getExecutionPlan(request.getParsedStepText());
+        timings.stop(StepTimings.Phase.LOOKUP, lookupStart);
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        if (plan == null) {
+            stepNotFound(request, result);
+        } else {
+            plan.execute(request, getInstanceManager(), parametersExtractor, result, timings);
+        }
+        timings.end();
+        new MessageCollector().addPendingMessagesTo(result);
+        new ScreenshotCollector().addPendingScreenshotTo(result);
+        return createMessageWithExecutionStatusResponse(message, result);
+    }
+
+    private void stepNotFound(Messages.ExecuteStepRequest request, Spec.ProtoExecutionResult.Builder result) {
+        result.setFailed(true).setExecutionTime(0)
+                .setErrorMessage(String.format("Step implementation not found for: %s", request.getActualStepText()));
     }
 }
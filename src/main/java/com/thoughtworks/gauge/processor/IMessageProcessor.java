@@ -17,7 +17,19 @@ package com.thoughtworks.gauge.processor;
 
 
 import gauge.messages.Messages;
+import gauge.messages.Spec;
 
 public interface IMessageProcessor {
+    /**
+     * Returned by a processor, instead of a response of its own, when the message passed without running anything or
+     * collecting any output. It has no message id: the dispatcher writes it from bytes serialized once, with the id of
+     * the request added.
+     */
+    Messages.Message PASSED = Messages.Message.newBuilder()
+            .setMessageType(Messages.Message.MessageType.ExecutionStatusResponse)
+            .setExecutionStatusResponse(Messages.ExecutionStatusResponse.newBuilder()
+                    .setExecutionResult(Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(0)))
+            .build();
+
     Messages.Message process(Messages.Message message);
 }
@@ -17,6 +17,8 @@ package com.thoughtworks.gauge.processor;
 
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.ExecutionContext;
+import com.thoughtworks.gauge.MessageCollector;
+import com.thoughtworks.gauge.ScreenshotCollector;
 import com.thoughtworks.gauge.execution.HooksExecutor;
 import com.thoughtworks.gauge.execution.MethodExecutor;
 import com.thoughtworks.gauge.hook.Hook;
@@ -61,9 +63,32 @@ public abstract class MethodExecutionMessageProcessor {
         return createMessageWithExecutionStatusResponse(message, passingExecution);
     }
 
-    public Messages.Message executeHooks(List<Hook> hooks, Messages.Message message, ExecutionContext executionInfo) {
-        Spec.ProtoExecutionResult executionStatusResponse = new HooksExecutor(hooks, executionInfo, instanceManager).execute();
-        return createMessageWithExecutionStatusResponse(message, executionStatusResponse);
+    /**
+     * Runs the hooks and answers the message with their result along with the pending messages and screenshots,
+     * building the result once.
+     */
+    protected Messages.Message executeHooksAndCollectOutput(List<Hook> hooks, Messages.Message message, ExecutionContext executionInfo) {
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        new HooksExecutor(hooks, executionInfo, instanceManager).execute(result);
+        new MessageCollector().addPendingMessagesTo(result);
+        new ScreenshotCollector().addPendingScreenshotTo(result);
+        return createMessageWithExecutionStatusResponse(message, result);
+    }
+
+    /**
+     * @return true if there are no hooks to run and no messages or screenshots to report, so that the message can be
+     * answered with {@link IMessageProcessor#PASSED}.
+     */
+    protected boolean hasNothingToRun(List<Hook> hooks) {
+        return hooks.isEmpty() && !new MessageCollector().hasPendingMessages() && !new ScreenshotCollector().hasPendingScreenshots();
+    }
+
+    public Messages.Message createMessageWithExecutionStatusResponse(Messages.Message receivedMessage, Spec.ProtoExecutionResult.Builder result) {
+        return Messages.Message.newBuilder()
+                .setMessageId(receivedMessage.getMessageId())
+                .setMessageType(Messages.Message.MessageType.ExecutionStatusResponse)
+                .setExecutionStatusResponse(Messages.ExecutionStatusResponse.newBuilder().setExecutionResult(result))
+                .build();
     }
 
     public Messages.Message createMessageWithExecutionStatusResponse(Messages.Message receivedMessage, Spec.ProtoExecutionResult result) {
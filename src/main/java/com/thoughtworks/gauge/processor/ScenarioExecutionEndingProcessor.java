@@ -17,12 +17,12 @@ package com.thoughtworks.gauge.processor;
 
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.ExecutionContext;
-import com.thoughtworks.gauge.MessageCollector;
-import com.thoughtworks.gauge.ScreenshotCollector;
 import com.thoughtworks.gauge.execution.ExecutionInfoMapper;
+import com.thoughtworks.gauge.hook.Hook;
 import com.thoughtworks.gauge.registry.HooksRegistry;
 import gauge.messages.Messages;
-import gauge.messages.Spec;
+
+import java.util.List;
 
 public class ScenarioExecutionEndingProcessor extends MethodExecutionMessageProcessor implements IMessageProcessor {
 
@@ -31,12 +31,14 @@ public class ScenarioExecutionEndingProcessor extends MethodExecutionMessageProc
     }
 
     public Messages.Message process(Messages.Message message) {
+        List<Hook> hooks = HooksRegistry.getAfterScenarioHooks();
+        if (hasNothingToRun(hooks)) {
+            ClearObjectCache.clear(ClearObjectCache.SCENARIO_LEVEL, getInstanceManager());
+            return PASSED;
+        }
         ExecutionContext info = new ExecutionInfoMapper().executionInfoFrom(message.getScenarioExecutionEndingRequest().getCurrentExecutionInfo());
-        Messages.Message result = executeHooks(HooksRegistry.getAfterScenarioHooks(), message, info);
+        Messages.Message result = executeHooksAndCollectOutput(hooks, message, info);
         ClearObjectCache.clear(ClearObjectCache.SCENARIO_LEVEL, getInstanceManager());
-        Spec.ProtoExecutionResult executionResult = result.getExecutionStatusResponse().getExecutionResult();
-        Spec.ProtoExecutionResult protoExecutionResult = new MessageCollector().addPendingMessagesTo(executionResult);
-        protoExecutionResult = new ScreenshotCollector().addPendingScreenshotTo(protoExecutionResult);
-        return createMessageWithExecutionStatusResponse(message, protoExecutionResult);
+        return result;
     }
 }
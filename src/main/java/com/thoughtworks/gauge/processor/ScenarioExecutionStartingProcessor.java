@@ -17,12 +17,12 @@ package com.thoughtworks.gauge.processor;
 
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.ExecutionContext;
-import com.thoughtworks.gauge.MessageCollector;
-import com.thoughtworks.gauge.ScreenshotCollector;
 import com.thoughtworks.gauge.execution.ExecutionInfoMapper;
+import com.thoughtworks.gauge.hook.Hook;
 import com.thoughtworks.gauge.registry.HooksRegistry;
 import gauge.messages.Messages;
-import gauge.messages.Spec;
+
+import java.util.List;
 
 public class ScenarioExecutionStartingProcessor extends MethodExecutionMessageProcessor implements IMessageProcessor {
     public ScenarioExecutionStartingProcessor(ClassInstanceManager instanceManager) {
@@ -30,11 +30,11 @@ public class ScenarioExecutionStartingProcessor extends MethodExecutionMessagePr
     }
 
     public Messages.Message process(Messages.Message message) {
+        List<Hook> hooks = HooksRegistry.getBeforeScenarioHooks();
+        if (hasNothingToRun(hooks)) {
+            return PASSED;
+        }
         ExecutionContext info = new ExecutionInfoMapper().executionInfoFrom(message.getScenarioExecutionStartingRequest().getCurrentExecutionInfo());
-        Messages.Message result = executeHooks(HooksRegistry.getBeforeScenarioHooks(), message, info);
-        Spec.ProtoExecutionResult executionResult = result.getExecutionStatusResponse().getExecutionResult();
-        Spec.ProtoExecutionResult protoExecutionResult = new MessageCollector().addPendingMessagesTo(executionResult);
-        protoExecutionResult = new ScreenshotCollector().addPendingScreenshotTo(protoExecutionResult);
-        return createMessageWithExecutionStatusResponse(message, protoExecutionResult);
+        return executeHooksAndCollectOutput(hooks, message, info);
     }
 }
@@ -17,12 +17,12 @@ package com.thoughtworks.gauge.processor;
 
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.ExecutionContext;
-import com.thoughtworks.gauge.MessageCollector;
-import com.thoughtworks.gauge.ScreenshotCollector;
 import com.thoughtworks.gauge.execution.ExecutionInfoMapper;
+import com.thoughtworks.gauge.hook.Hook;
 import com.thoughtworks.gauge.registry.HooksRegistry;
 import gauge.messages.Messages;
-import gauge.messages.Spec;
+
+import java.util.List;
 
 public class StepExecutionEndingProcessor extends MethodExecutionMessageProcessor implements IMessageProcessor {
 
@@ -31,11 +31,11 @@ public class StepExecutionEndingProcessor extends MethodExecutionMessageProcesso
     }
 
     public Messages.Message process(Messages.Message message) {
+        List<Hook> hooks = HooksRegistry.getAfterStepHooks();
+        if (hasNothingToRun(hooks)) {
+            return PASSED;
+        }
         ExecutionContext info = new ExecutionInfoMapper().executionInfoFrom(message.getStepExecutionEndingRequest().getCurrentExecutionInfo());
-        Messages.Message result = executeHooks(HooksRegistry.getAfterStepHooks(), message, info);
-        Spec.ProtoExecutionResult executionResult = result.getExecutionStatusResponse().getExecutionResult();
-        Spec.ProtoExecutionResult protoExecutionResult = new MessageCollector().addPendingMessagesTo(executionResult);
-        protoExecutionResult = new ScreenshotCollector().addPendingScreenshotTo(protoExecutionResult);
-        return createMessageWithExecutionStatusResponse(message, protoExecutionResult);
+        return executeHooksAndCollectOutput(hooks, message, info);
     }
 }
@@ -27,27 +27,43 @@ import com.thoughtworks.gauge.BeforeStep;
 import com.thoughtworks.gauge.BeforeSuite;
 import com.thoughtworks.gauge.Operator;
 import com.thoughtworks.gauge.hook.Hook;
+import com.thoughtworks.gauge.hook.HookList;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-import static java.util.stream.Collectors.toList;
 
+/**
+ * Hooks by hook type.
+ * <p>
+ * Hooks are added while scanning. Lookups are answered from an immutable snapshot that holds every hook type already
+ * sorted in execution order, and the class steps hooks grouped by declaring class. The snapshot is rebuilt on the first
+ * lookup after a change, so lookups take no lock and allocate nothing. Each list is a {@link HookList}, which caches
+ * the hooks that apply to each set of spec and scenario tags.
+ * </p>
+ */
 public class HooksRegistry {
     // Names of methods defined in each Hook annotation. Do not rename these methods in any Hook Class.
     public static final String TAGS_METHOD = "tags";
     public static final String TAG_AGGREGATION_METHOD = "tagAggregation";
 
+    private static final List<Class<? extends Annotation>> BEFORE_HOOKS = Arrays.asList(BeforeSuite.class, BeforeSpec.class,
+            BeforeScenario.class, BeforeStep.class, BeforeClassSteps.class);
+    private static final List<Class<? extends Annotation>> AFTER_HOOKS = Arrays.asList(AfterSuite.class, AfterSpec.class,
+            AfterScenario.class, AfterStep.class, AfterClassSteps.class);
+
     private static HashMap<Class, HashSet<Hook>> registryMap = new HashMap<>();
+    private static volatile Snapshot snapshot;
 
     public static List<Hook> getBeforeSpecHooks() {
-        return sort(registryMap.get(BeforeSpec.class));
+        return snapshot().hooksOf(BeforeSpec.class);
     }
 
     public static void addBeforeSpecHooks(Set<Method> methods) {
@@ -55,7 +71,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getAfterSpecHooks() {
-        return sortReverse(registryMap.get(AfterSpec.class));
+        return snapshot().hooksOf(AfterSpec.class);
     }
 
     public static void addAfterSpecHooks(Set<Method> methods) {
@@ -63,15 +79,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getBeforeScenarioHooks() {
-        return sort(registryMap.get(BeforeScenario.class));
-    }
-
-    private static List<Hook> sort(Set<Hook> hooks) {
-        return hooks.stream().sorted().collect(toList());
-    }
-
-    private static List<Hook> sortReverse(Set<Hook> hooks) {
-        return hooks.stream().sorted(Comparator.reverseOrder()).collect(toList());
+        return snapshot().hooksOf(BeforeScenario.class);
     }
 
     public static void addBeforeScenarioHooks(Set<Method> methods) {
@@ -79,7 +87,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getAfterScenarioHooks() {
-        return sortReverse(registryMap.get(AfterScenario.class));
+        return snapshot().hooksOf(AfterScenario.class);
     }
 
     public static void addAfterScenarioHooks(Set<Method> methods) {
@@ -87,7 +95,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getBeforeStepHooks() {
-        return sort(registryMap.get(BeforeStep.class));
+        return snapshot().hooksOf(BeforeStep.class);
     }
 
     public static void addBeforeStepHooks(Set<Method> methods) {
@@ -95,7 +103,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getAfterStepHooks() {
-        return sortReverse(registryMap.get(AfterStep.class));
+        return snapshot().hooksOf(AfterStep.class);
     }
 
     public static void setAfterStepHooks(Set<Method> methods) {
@@ -103,7 +111,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getBeforeSuiteHooks() {
-        return sort(registryMap.get(BeforeSuite.class));
+        return snapshot().hooksOf(BeforeSuite.class);
     }
 
     public static void addBeforeSuiteHooks(Set<Method> methods) {
@@ -111,7 +119,7 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getAfterSuiteHooks() {
-        return sortReverse(registryMap.get(AfterSuite.class));
+        return snapshot().hooksOf(AfterSuite.class);
     }
 
     public static void addAfterSuiteHooks(Set<Method> methods) {
@@ -127,23 +135,22 @@ public class HooksRegistry {
     }
 
     public static List<Hook> getBeforeClassStepsHooksOfClass(Class<?> aClass) {
-        return sort(findClassHooksForClass(getBeforeClassHooks(), aClass));
+        return snapshot().beforeClassStepsHooks.getOrDefault(aClass, HookList.EMPTY);
     }
 
     public static List<Hook> getAfterClassStepsHooksOfClass(Class<?> aClass) {
-        return sortReverse(findClassHooksForClass(getAfterClassHooks(), aClass));
-    }
-
-    private static Set<Hook> findClassHooksForClass(List<Hook> allClassHooks, Class<?> aClass) {
-        return allClassHooks.stream().filter(hook -> hook.getMethod().getDeclaringClass().equals(aClass)).collect(Collectors.toSet());
+        return snapshot().afterClassStepsHooks.getOrDefault(aClass, HookList.EMPTY);
     }
 
-    private static void addHooks(Set<Method> methods, Class hookClass) {
+    private static synchronized void addHooks(Set<Method> methods, Class hookClass) {
         registryMap.putIfAbsent(hookClass, new HashSet<>());
-        registryMap.get(hookClass).addAll(methods.stream().map(Hook::new).collect(toList()));
+        for (Method method : methods) {
+            registryMap.get(hookClass).add(new Hook(method));
+        }
+        snapshot = null;
     }
 
-    private static void addHooksWithTags(Set<Method> methods, Class hookClass) {
+    private static synchronized void addHooksWithTags(Set<Method> methods, Class hookClass) {
         registryMap.putIfAbsent(hookClass, new HashSet<>());
         for (Method method : methods) {
             Annotation annotation = method.getAnnotation(hookClass);
@@ -157,17 +164,66 @@ public class HooksRegistry {
                 continue;
             }
         }
+        snapshot = null;
     }
 
-    private static List<Hook> getBeforeClassHooks() {
-        return sort(registryMap.get(BeforeClassSteps.class));
+    static synchronized void remove(Class hookType) {
+        registryMap.remove(hookType);
+        snapshot = null;
+    }
+
+    private static Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (HooksRegistry.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(registryMap);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
     }
 
-    private static List<Hook> getAfterClassHooks() {
-        return sortReverse(registryMap.get(AfterClassSteps.class));
-    }
+    private static final class Snapshot {
+        private final Map<Class, List<Hook>> hooks = new HashMap<>();
+        private final Map<Class<?>, List<Hook>> beforeClassStepsHooks;
+        private final Map<Class<?>, List<Hook>> afterClassStepsHooks;
 
-    static void remove(Class hookType) {
-        registryMap.remove(hookType);
+        Snapshot(Map<Class, HashSet<Hook>> registry) {
+            for (Class<? extends Annotation> hookType : BEFORE_HOOKS) {
+                hooks.put(hookType, sorted(registry.get(hookType), Comparator.naturalOrder()));
+            }
+            for (Class<? extends Annotation> hookType : AFTER_HOOKS) {
+                hooks.put(hookType, sorted(registry.get(hookType), Comparator.reverseOrder()));
+            }
+            beforeClassStepsHooks = byDeclaringClass(hooks.get(BeforeClassSteps.class));
+            afterClassStepsHooks = byDeclaringClass(hooks.get(AfterClassSteps.class));
+        }
+
+        List<Hook> hooksOf(Class hookType) {
+            return hooks.get(hookType);
+        }
+
+        private static List<Hook> sorted(Set<Hook> hooks, Comparator<Hook> order) {
+            if (hooks == null || hooks.isEmpty()) {
+                return HookList.EMPTY;
+            }
+            Hook[] sorted = hooks.toArray(new Hook[0]);
+            Arrays.sort(sorted, order);
+            return new HookList(sorted);
+        }
+
+        private static Map<Class<?>, List<Hook>> byDeclaringClass(List<Hook> sortedHooks) {
+            Map<Class<?>, List<Hook>> grouped = new HashMap<>();
+            for (Hook hook : sortedHooks) {
+                grouped.computeIfAbsent(hook.getMethod().getDeclaringClass(), k -> new ArrayList<>()).add(hook);
+            }
+            for (Map.Entry<Class<?>, List<Hook>> entry : grouped.entrySet()) {
+                entry.setValue(HookList.of(entry.getValue()));
+            }
+            return grouped;
+        }
     }
 }
@@ -16,100 +16,139 @@
 package com.thoughtworks.gauge.registry;
 
 import com.thoughtworks.gauge.StepValue;
+import com.thoughtworks.gauge.execution.StepExecutionPlan;
 
 import java.io.File;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.HashMap;
-import java.util.HashSet;
-
-
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
+/**
+ * Step implementations by step text.
+ * <p>
+ * Steps are added while scanning. Lookups are answered from an immutable, indexed snapshot of the registry that is
+ * rebuilt on the first lookup after a change, so every lookup is a single hash probe and stream threads can read the
+ * registry without locking. The snapshot also holds a {@link StepExecutionPlan} per step text, so executing a step does
+ * not resolve its implementation again.
+ * </p>
+ */
 public class StepRegistry {
-    private HashMap<String, Set<StepRegistryEntry>> registry = new HashMap<>();
+    private final Map<String, Set<StepRegistryEntry>> registry = new LinkedHashMap<>();
+    private volatile Snapshot snapshot;
 
-    public void addStepImplementation(StepValue stepValue, Method method) {
-        String stepText = stepValue.getStepText();
-        registry.putIfAbsent(stepText, new HashSet<>());
-        registry.get(stepText).add(new StepRegistryEntry(stepValue, method));
+    public synchronized void addStepImplementation(StepValue stepValue, Method method) {
+        registry.computeIfAbsent(stepValue.getStepText(), k -> new LinkedHashSet<>()).add(new StepRegistryEntry(stepValue, method));
+        snapshot = null;
     }
 
     public boolean contains(String stepTemplateText) {
-        return registry.containsKey(stepTemplateText);
+        return snapshot().firstEntries.containsKey(stepTemplateText);
     }
 
     public Method get(String stepTemplateText) {
-        return getFirstEntry(stepTemplateText).getMethod();
+        StepRegistryEntry entry = snapshot().firstEntries.get(stepTemplateText);
+        return entry == null ? null : entry.getMethod();
     }
 
-    private StepRegistryEntry getFirstEntry(String stepTemplateText) {
-        return registry.getOrDefault(stepTemplateText, new HashSet<>()).stream()
-                .findFirst()
-                .orElse(new StepRegistryEntry());
+    public StepExecutionPlan getExecutionPlan(String stepTemplateText) {
+        return snapshot().plans.get(stepTemplateText);
     }
 
     public String getFileName(String stepTemplateText) {
-        return getFirstEntry(stepTemplateText).getFileName();
+        StepRegistryEntry entry = snapshot().firstEntries.get(stepTemplateText);
+        return entry == null ? "" : entry.getFileName();
     }
 
     public List<String> getAllStepAnnotationTexts() {
-        return registry.values().stream().flatMap(Collection::stream)
-                .map(entry -> entry.getStepValue().getStepAnnotationText())
-                .collect(toList());
-    }
-
-    private List<String> getStepAnnotationFor(Set<String> stepTexts) {
-        List<String> annotations = new ArrayList<>();
-        for (String stepText : stepTexts) {
-            annotations.add(this.getStepAnnotationFor(stepText));
-        }
-        return annotations;
+        return snapshot().annotationTexts;
     }
 
     String getStepAnnotationFor(String stepTemplateText) {
-        return registry.values().stream().flatMap(Collection::stream).map(StepRegistryEntry::getStepValue)
-                .filter(stepValue -> stepValue.getStepText().equals(stepTemplateText))
-                .map(StepValue::getStepAnnotationText).findFirst().orElse("");
+        StepRegistryEntry entry = snapshot().firstEntries.get(stepTemplateText);
+        return entry == null ? "" : entry.getStepValue().getStepAnnotationText();
     }
 
     public Set<String> getAllAliasAnnotationTextsFor(String stepTemplateText) {
-        Method method = get(stepTemplateText);
-        return registry.values().stream().flatMap(Collection::stream)
-                .filter(registryEntry -> registryEntry.getMethod().equals(method))
-                .map(registryEntry -> registryEntry.getStepValue().getStepAnnotationText()).collect(toSet());
+        Snapshot current = snapshot();
+        StepRegistryEntry entry = current.firstEntries.get(stepTemplateText);
+        return entry == null ? Collections.emptySet() : current.aliases.get(entry.getMethod());
     }
 
     public boolean hasAlias(String stepTemplateText) {
-        return getStepAnnotationFor(getAllAliasAnnotationTextsFor(stepTemplateText)).size() > 1;
+        return getAllAliasAnnotationTextsFor(stepTemplateText).size() > 1;
     }
 
-    void remove(String stepTemplateText) {
+    synchronized void remove(String stepTemplateText) {
         registry.remove(stepTemplateText);
+        snapshot = null;
     }
 
     public Set<Method> getAll(String stepText) {
-        return registry.getOrDefault(stepText, new HashSet<>()).stream()
-                .map(StepRegistryEntry::getMethod)
-                .collect(toSet());
+        return snapshot().methods.getOrDefault(stepText, Collections.emptySet());
     }
 
-    private class StepRegistryEntry {
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(registry);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final Map<String, StepRegistryEntry> firstEntries = new HashMap<>();
+        private final Map<String, Set<Method>> methods = new HashMap<>();
+        private final Map<Method, Set<String>> aliases = new HashMap<>();
+        private final Map<String, StepExecutionPlan> plans = new HashMap<>();
+        private final List<String> annotationTexts;
+
+        Snapshot(Map<String, Set<StepRegistryEntry>> registry) {
+            List<String> allAnnotationTexts = new ArrayList<>();
+            Map<Method, Set<String>> aliasTexts = new HashMap<>();
+            for (Map.Entry<String, Set<StepRegistryEntry>> stepEntries : registry.entrySet()) {
+                if (stepEntries.getValue().isEmpty()) {
+                    continue;
+                }
+                List<StepRegistryEntry> stepImplementations = new ArrayList<>(stepEntries.getValue());
+                Set<Method> stepMethods = new LinkedHashSet<>();
+                for (StepRegistryEntry entry : stepImplementations) {
+                    stepMethods.add(entry.getMethod());
+                    allAnnotationTexts.add(entry.getStepValue().getStepAnnotationText());
+                    aliasTexts.computeIfAbsent(entry.getMethod(), k -> new LinkedHashSet<>()).add(entry.getStepValue().getStepAnnotationText());
+                }
+                firstEntries.put(stepEntries.getKey(), stepImplementations.get(0));
+                plans.put(stepEntries.getKey(), new StepExecutionPlan(stepImplementations.get(0).getMethod()));
+                methods.put(stepEntries.getKey(), Collections.unmodifiableSet(stepMethods));
+            }
+            for (Map.Entry<Method, Set<String>> alias : aliasTexts.entrySet()) {
+                aliases.put(alias.getKey(), Collections.unmodifiableSet(alias.getValue()));
+            }
+            annotationTexts = Collections.unmodifiableList(allAnnotationTexts);
+        }
+    }
+
+    private static final class StepRegistryEntry {
         private final StepValue stepValue;
         private final Method method;
+        private final String fileName;
 
         StepRegistryEntry(StepValue stepValue, Method method) {
             this.stepValue = stepValue;
             this.method = method;
-        }
-
-        StepRegistryEntry() {
-            stepValue = new StepValue("", "", new ArrayList<String>());
-            method = null;
+            String className = method.getDeclaringClass().getCanonicalName() != null ? method.getDeclaringClass().getCanonicalName() : method.getDeclaringClass().getName();
+            this.fileName = className.replace(".", File.separator) + ".java";
         }
 
         public StepValue getStepValue() {
@@ -121,10 +160,7 @@ public class StepRegistry {
         }
 
         public String getFileName() {
-            if (method == null) {
-                return "";
-            }
-            return method.getDeclaringClass().getCanonicalName().replace(".", File.separator) + ".java";
+            return fileName;
         }
     }
 }
@@ -0,0 +1,383 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.scan;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.thoughtworks.gauge.GaugeConstant;
+import org.reflections.Store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Scan results of classpath entries without a {@link GaugeIndex}, kept between runs in the directory named by the
+ * {@link GaugeConstant#CLASSPATH_SCAN_CACHE} environment property, eg. build/tmp or target. Nothing is cached unless
+ * it is set.
+ * <p>
+ * An entry is reused as long as its classpath entry is unchanged. Jars are keyed on their size and last modified time.
+ * Class directories are fingerprinted by the size of their class files and the newest modification time of their files
+ * and directories; when that differs, the hash of their class files is compared, so that rebuilt but identical class
+ * directories are not scanned again. Each result records the packages it was scanned for: an unfiltered result can be
+ * used with any input filter, a filtered one only when the same packages are scanned again.
+ * </p>
+ * <p>
+ * The cache file is replaced atomically, so runners started in parallel on the same project can read it while another
+ * one writes it.
+ * </p>
+ */
+final class ClasspathScanCache {
+    static final String FILE_NAME = "classpath-scan.cache";
+    private static final int MAGIC = 0x47534331; // SUPPRESS CHECKSTYLE
+    private static final int VERSION = 2;
+    private static final String[] STORE_INDEXES = {GaugeIndex.METHOD_ANNOTATIONS, GaugeIndex.SUB_TYPES};
+
+    private final File file; // null if nothing is cached
+    private final Map<String, Entry> cached;
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    private ClasspathScanCache(File file, Map<String, Entry> cached) {
+        this.file = file;
+        this.cached = cached;
+    }
+
+    /**
+     * @return the cache configured by {@link GaugeConstant#CLASSPATH_SCAN_CACHE}, relative to the project root
+     */
+    static ClasspathScanCache forProject() {
+        return forProject(System.getenv(GaugeConstant.GAUGE_PROJECT_ROOT), System.getenv(GaugeConstant.CLASSPATH_SCAN_CACHE));
+    }
+
+    static ClasspathScanCache forProject(String projectRoot, String cacheDir) {
+        if (cacheDir == null || cacheDir.trim().isEmpty()) {
+            return new ClasspathScanCache(null, Collections.emptyMap());
+        }
+        File dir = new File(cacheDir.trim());
+        if (!dir.isAbsolute()) {
+            boolean noProjectRoot = projectRoot == null || projectRoot.trim().isEmpty();
+            dir = new File(noProjectRoot ? System.getProperty("user.dir") : projectRoot, cacheDir.trim());
+        }
+        return load(new File(dir, FILE_NAME));
+    }
+
+    static ClasspathScanCache load(File file) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        Entry entry = Entry.read(in);
+                        entries.put(entry.path, entry);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println(String.format("Ignoring unreadable classpath scan cache %s: %s", file, e.getMessage()));
+                entries.clear();
+            }
+        }
+        return new ClasspathScanCache(file, entries);
+    }
+
+    /**
+     * Looks up the cached scan result of a classpath entry. Safe to call from several threads.
+     *
+     * @param url      - a classpath entry
+     * @param packages - the packages to scan, or an empty string if the whole classpath entry is scanned
+     * @return the scan result, or null if the classpath entry has to be scanned
+     */
+    Entry get(URL url, String packages) {
+        File classpathEntry = toFile(url);
+        if (classpathEntry == null) {
+            return null;
+        }
+        if (file == null) {
+            return null;
+        }
+        Entry entry = used.get(classpathEntry.getPath());
+        if (entry != null) {
+            return entry.covers(packages) ? entry : null;
+        }
+        entry = cached.get(classpathEntry.getPath());
+        if (entry == null || !entry.covers(packages)) {
+            return null;
+        }
+        Fingerprint fingerprint = Fingerprint.of(classpathEntry);
+        if (!entry.matches(fingerprint)) {
+            if (entry.hash.isEmpty() || !classpathEntry.isDirectory() || !entry.hash.equals(hash(classpathEntry))) {
+                return null;
+            }
+            entry = new Entry(entry.path, entry.packages, fingerprint.size, fingerprint.lastModified, entry.hash, entry.data);
+            changed = true;
+        }
+        used.put(entry.path, entry);
+        return entry;
+    }
+
+    /**
+     * @return true if scan results of the classpath entry can be cached
+     */
+    static boolean isCacheable(URL url) {
+        return toFile(url) != null;
+    }
+
+    /**
+     * Records the scan result of a classpath entry. Safe to call from several threads.
+     *
+     * @param url      - a cacheable classpath entry, see {@link #isCacheable(URL)}
+     * @param packages - the packages the classpath entry was scanned for, or an empty string if it was scanned unfiltered
+     * @param scanned  - store of a scan of only this classpath entry
+     * @return the recorded scan result
+     */
+    Entry put(URL url, String packages, Store scanned) {
+        File classpathEntry = toFile(url);
+        Map<String, SetMultimap<String, String>> data = new HashMap<>();
+        for (String index : STORE_INDEXES) {
+            SetMultimap<String, String> values = HashMultimap.create();
+            if (scanned.keySet().contains(index)) {
+                values.putAll(scanned.get(index));
+            }
+            data.put(index, values);
+        }
+        if (file == null) {
+            return new Entry(classpathEntry.getPath(), packages, 0, 0, "", data);
+        }
+        Fingerprint fingerprint = Fingerprint.of(classpathEntry);
+        String hash = classpathEntry.isDirectory() ? hash(classpathEntry) : "";
+        Entry entry = new Entry(classpathEntry.getPath(), packages, fingerprint.size, fingerprint.lastModified, hash, data);
+        used.put(entry.path, entry);
+        changed = true;
+        return entry;
+    }
+
+    /**
+     * Writes the cache if anything changed, keeping only the classpath entries used in this run.
+     */
+    void save() {
+        if (file == null || !changed && used.keySet().equals(cached.keySet())) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            temp = new File(file.getParentFile(), FILE_NAME + "." + UUID.randomUUID() + ".tmp").toPath();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp.toFile())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(used.size());
+                for (Entry entry : used.values()) {
+                    entry.write(out);
+                }
+            }
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println(String.format("Could not write classpath scan cache %s: %s", file, e.getMessage()));
+            if (temp != null) {
+                temp.toFile().delete();
+            }
+        }
+    }
+
+    private static File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            File file = new File(url.toURI());
+            return file.exists() ? file : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String hash(File classesDir) {
+        try {
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            for (Path classFile : classFiles(classesDir)) {
+                hasher.putString(classesDir.toPath().relativize(classFile).toString(), StandardCharsets.UTF_8);
+                hasher.putBytes(Files.readAllBytes(classFile));
+            }
+            return hasher.hash().toString();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static List<Path> classFiles(File directory) throws IOException {
+        List<Path> classFiles = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            files.filter(path -> path.toString().endsWith(".class")).forEach(classFiles::add);
+        }
+        Collections.sort(classFiles);
+        return classFiles;
+    }
+
+    private static final class Fingerprint {
+        private final long size;
+        private final long lastModified;
+
+        private Fingerprint(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        static Fingerprint of(File classpathEntry) {
+            if (!classpathEntry.isDirectory()) {
+                return new Fingerprint(classpathEntry.length(), classpathEntry.lastModified());
+            }
+            long size = 0;
+            long lastModified = 0;
+            try (Stream<Path> files = Files.walk(classpathEntry.toPath())) {
+                for (Path path : (Iterable<Path>) files::iterator) {
+                    File file = path.toFile();
+                    // Directories change when files are added or removed
+                    lastModified = Math.max(lastModified, file.lastModified());
+                    if (path.toString().endsWith(".class")) {
+                        size += file.length();
+                    }
+                }
+            } catch (IOException e) {
+                return new Fingerprint(-1, -1);
+            }
+            return new Fingerprint(size, lastModified);
+        }
+    }
+
+    /**
+     * Scan result of a classpath entry.
+     */
+    static final class Entry {
+        private final String path;
+        private final String packages;
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+        private final Map<String, SetMultimap<String, String>> data;
+
+        private Entry(String path, String packages, long size, long lastModified, String hash,
+                      Map<String, SetMultimap<String, String>> data) {
+            this.path = path;
+            this.packages = packages;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.data = data;
+        }
+
+        boolean covers(String scannedPackages) {
+            return packages.isEmpty() || packages.equals(scannedPackages);
+        }
+
+        boolean matches(Fingerprint fingerprint) {
+            return fingerprint.size == size && fingerprint.lastModified == lastModified;
+        }
+
+        /**
+         * Adds the scan result to a store, skipping classes the filter excludes.
+         */
+        void addTo(Store store, Predicate<String> filter) {
+            for (Map.Entry<String, SetMultimap<String, String>> index : data.entrySet()) {
+                Multimap<String, String> values = store.getOrCreate(index.getKey());
+                boolean methods = GaugeIndex.METHOD_ANNOTATIONS.equals(index.getKey());
+                for (Map.Entry<String, String> value : index.getValue().entries()) {
+                    String className = methods ? declaringClass(value.getValue()) : value.getValue();
+                    if (GaugeIndex.includes(filter, className)) {
+                        values.put(value.getKey(), value.getValue());
+                    }
+                }
+            }
+        }
+
+        // eg. com.example.Steps.login(java.lang.String) is declared in com.example.Steps
+        private static String declaringClass(String methodKey) {
+            int parameters = methodKey.indexOf('(');
+            return methodKey.substring(0, methodKey.lastIndexOf('.', parameters < 0 ? methodKey.length() : parameters));
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(path);
+            out.writeUTF(packages);
+            out.writeLong(size);
+            out.writeLong(lastModified);
+            out.writeUTF(hash);
+            out.writeInt(data.size());
+            for (Map.Entry<String, SetMultimap<String, String>> index : data.entrySet()) {
+                out.writeUTF(index.getKey());
+                out.writeInt(index.getValue().keySet().size());
+                for (Map.Entry<String, Collection<String>> key : index.getValue().asMap().entrySet()) {
+                    out.writeUTF(key.getKey());
+                    out.writeInt(key.getValue().size());
+                    for (String value : key.getValue()) {
+                        out.writeUTF(value);
+                    }
+                }
+            }
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            String path = in.readUTF();
+            String packages = in.readUTF();
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            String hash = in.readUTF();
+            Map<String, SetMultimap<String, String>> data = new HashMap<>();
+            int indexes = in.readInt();
+            for (int i = 0; i < indexes; i++) {
+                SetMultimap<String, String> values = HashMultimap.create();
+                data.put(in.readUTF(), values);
+                int keys = in.readInt();
+                for (int k = 0; k < keys; k++) {
+                    String key = in.readUTF();
+                    int count = in.readInt();
+                    for (int v = 0; v < count; v++) {
+                        values.put(key, in.readUTF());
+                    }
+                }
+            }
+            return new Entry(path, packages, size, lastModified, hash, data);
+        }
+    }
+}
@@ -15,9 +15,13 @@
 
 package com.thoughtworks.gauge.scan;
 
+import com.thoughtworks.gauge.ClasspathFilter;
 import com.thoughtworks.gauge.ClasspathHelper;
+import com.thoughtworks.gauge.jfr.RunnerEvents;
+import com.google.common.base.Predicate;
 import org.reflections.Configuration;
 import org.reflections.Reflections;
+import org.reflections.Store;
 import org.reflections.scanners.MethodAnnotationsScanner;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.util.ConfigurationBuilder;
@@ -28,23 +32,84 @@ import org.reflections.vfs.ZipDir;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.jar.JarFile;
 
-import static com.thoughtworks.gauge.GaugeConstant.PACKAGE_TO_SCAN;
-
 /**
  * Scans the current Classpath and passes to all the scanners passed.
+ * <p>
+ * The classpath is scanned once per process, with its entries scanned in parallel, and the resulting
+ * {@link #snapshot()} is shared by all scanners and parameter parsing chains. It must not be modified.
+ * </p>
  */
 public class ClasspathScanner {
+    private static final Predicate<String> ALL_CLASSES = new FilterBuilder().include(".+\\.class");
+    private static volatile Reflections snapshot;
+    private static volatile Reflections unfilteredSnapshot;
 
     public void scan(IScanner... scanners) {
-        Reflections reflections = createReflections();
+        Reflections reflections = snapshot();
         for (IScanner scanner : scanners) {
+            Object event = RunnerEvents.beginClasspathScan();
             scanner.scan(reflections);
+            RunnerEvents.commitClasspathScan(event, "scanner", scanner.getClass().getName());
+        }
+    }
+
+    /**
+     * Gets the method annotations and sub types of the classpath, scanning it on first use. Classpath entries with a
+     * {@link GaugeIndex} are read from their index, and the others from the {@link ClasspathScanCache} unless they
+     * changed since they were last scanned.
+     *
+     * @return the shared, read only Reflections of the classpath
+     */
+    public static Reflections snapshot() {
+        Reflections reflections = snapshot;
+        if (reflections == null) {
+            synchronized (ClasspathScanner.class) {
+                reflections = snapshot;
+                if (reflections == null) {
+                    ClasspathFilter filter = ClasspathFilter.fromEnvironment();
+                    reflections = new ClasspathScanner().createReflections(String.join(",", filter.getPackagesToScan()),
+                            filter::includesClassFile);
+                    snapshot = reflections;
+                }
+            }
+        }
+        return reflections;
+    }
+
+    /**
+     * Gets the sub types of a type in all classes of the scanned classpath entries, including those outside of the
+     * packages to scan. Used for extension points such as custom parameter parsers, which need not be in the packages
+     * with the steps.
+     *
+     * @param type - the super type
+     * @return the sub types found
+     */
+    public static <T> Set<Class<? extends T>> subTypesOf(Class<T> type) {
+        if (ClasspathFilter.fromEnvironment().getPackagesToScan().isEmpty()) {
+            return snapshot().getSubTypesOf(type);
+        }
+        Reflections reflections = unfilteredSnapshot;
+        if (reflections == null) {
+            synchronized (ClasspathScanner.class) {
+                reflections = unfilteredSnapshot;
+                if (reflections == null) {
+                    reflections = new ClasspathScanner().createReflections("", ALL_CLASSES);
+                    unfilteredSnapshot = reflections;
+                }
+            }
         }
+        return reflections.getSubTypesOf(type);
     }
 
-    private Reflections createReflections() {
+    private Reflections createReflections(String packages, Predicate<String> inputFilter) {
         Vfs.addDefaultURLTypes(new Vfs.UrlType() {
             @Override
             public boolean matches(URL url) throws Exception {
@@ -58,26 +123,59 @@ public class ClasspathScanner {
             }
         });
 
-        Configuration config = new ConfigurationBuilder()
-                .setScanners(new MethodAnnotationsScanner(), new SubTypesScanner())
-                .addUrls(ClasspathHelper.getUrls())
-                .filterInputsBy(this::shouldScan);
+        ClasspathScanCache cache = ClasspathScanCache.forProject();
+        List<Consumer<Store>> scanResults = new ArrayList<>(ClasspathHelper.getUrls()).parallelStream()
+                .map(url -> scan(url, cache, packages, inputFilter))
+                .collect(Collectors.toList());
 
-        return new Reflections(config);
+        Object event = RunnerEvents.beginClasspathScan();
+        Reflections reflections = new Reflections(configuration(Collections.emptyList(), inputFilter));
+        Store store = reflections.getStore();
+        store.getOrCreate(GaugeIndex.METHOD_ANNOTATIONS);
+        store.getOrCreate(GaugeIndex.SUB_TYPES);
+        for (Consumer<Store> scanResult : scanResults) {
+            scanResult.accept(store);
+        }
+        RunnerEvents.commitClasspathScan(event, "merge", scanResults.size());
+        event = RunnerEvents.beginClasspathScan();
+        cache.save();
+        RunnerEvents.commitClasspathScan(event, "save", ClasspathScanCache.FILE_NAME);
+        return reflections;
     }
 
-    private boolean shouldScan(String s) {
-        final String packagesToScan = System.getenv(PACKAGE_TO_SCAN);
-        if (packagesToScan == null || packagesToScan.isEmpty()) {
-            return new FilterBuilder().include(".+\\.class").apply(s);
+    // Runs in parallel for all classpath entries; the result is merged into the shared store afterwards.
+    private Consumer<Store> scan(URL url, ClasspathScanCache cache, String packages, Predicate<String> inputFilter) {
+        Object event = RunnerEvents.beginClasspathScan();
+        GaugeIndex index = GaugeIndex.read(url);
+        if (index != null) {
+            RunnerEvents.commitClasspathScan(event, "index", url);
+            return store -> index.addTo(store, inputFilter);
         }
-        final String[] packages = packagesToScan.split(",");
-        for (String packageToScan : packages) {
-            String regex = String.format(".?\\.??%s.+\\.class", packageToScan);
-            if (new FilterBuilder().include(regex).apply(s)) {
-                return true;
-            }
+        if (!ClasspathScanCache.isCacheable(url)) {
+            Store scanned = scan(url, inputFilter);
+            RunnerEvents.commitClasspathScan(event, "scan", url);
+            return store -> {
+                for (String name : scanned.keySet()) {
+                    store.getOrCreate(name).putAll(scanned.get(name));
+                }
+            };
         }
-        return false;
+        // Without packages to scan, whole classpath entries are cached so that later runs can narrow the scan
+        ClasspathScanCache.Entry cached = cache.get(url, packages);
+        ClasspathScanCache.Entry entry = cached != null ? cached
+                : cache.put(url, packages, scan(url, packages.isEmpty() ? ALL_CLASSES : inputFilter));
+        RunnerEvents.commitClasspathScan(event, cached != null ? "cache" : "scan", url);
+        return store -> entry.addTo(store, inputFilter);
+    }
+
+    private Store scan(URL url, Predicate<String> inputFilter) {
+        return new Reflections(configuration(Collections.singletonList(url), inputFilter)).getStore();
+    }
+
+    private Configuration configuration(List<URL> urls, Predicate<String> inputFilter) {
+        return new ConfigurationBuilder()
+                .setScanners(new MethodAnnotationsScanner(), new SubTypesScanner())
+                .addUrls(urls)
+                .filterInputsBy(inputFilter);
     }
 }
@@ -0,0 +1,294 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.scan;
+
+import org.reflections.Store;
+import org.reflections.scanners.MethodAnnotationsScanner;
+import org.reflections.scanners.SubTypesScanner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Index of steps, hooks and extension points of a classpath entry, written at compile time by
+ * {@link GaugeIndexProcessor} to {@value #PATH}.
+ * <p>
+ * Every line is one tab separated entry, with tabs, line breaks and backslashes in fields escaped by a backslash:
+ * <pre>
+ * method    &lt;declaring class&gt;  &lt;annotation&gt;  &lt;method key, eg. login(java.lang.String, int)&gt;  [step text...]
+ * subtype   &lt;class&gt;            &lt;indexed supertype&gt;
+ * compiled  &lt;top level class compiled along with the index&gt;
+ * classfile &lt;path of a class file compiled earlier&gt;  &lt;last modified&gt;  &lt;size&gt;
+ * </pre>
+ * Lines starting with # are comments.
+ * </p>
+ * <p>
+ * The compiled and classfile entries say which class files of a class directory the index describes, so that the
+ * index can be checked against the directory without relying on file times of the index itself. A class file of a
+ * class that was not compiled along with the index, and that is not recorded unchanged, was compiled without the
+ * processor, eg. by an IDE that skips annotation processing.
+ * </p>
+ */
+public final class GaugeIndex {
+    public static final String PATH = "META-INF/gauge/index";
+    static final String HEADER = "# gauge index v2";
+    static final String METHOD = "method";
+    static final String SUBTYPE = "subtype";
+    static final String COMPILED = "compiled";
+    static final String CLASS_FILE = "classfile";
+    static final String METHOD_ANNOTATIONS = MethodAnnotationsScanner.class.getSimpleName();
+    static final String SUB_TYPES = SubTypesScanner.class.getSimpleName();
+
+    static final int KIND = 0;
+    static final int OWNER = 1;
+    private static final int KEY = 2;
+    private static final int METHOD_KEY = 3;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final File classesDir;
+    private final List<String[]> entries;
+
+    private GaugeIndex(File classesDir, List<String[]> entries) {
+        this.classesDir = classesDir;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the index of a classpath entry. The index of a class directory is ignored if it does not describe every
+     * class file in it, as after a compile that skipped annotation processing. A class compiled along with the index
+     * and compiled again later without annotation processing cannot be told apart from the one that was indexed;
+     * the next compile with the processor indexes it again.
+     *
+     * @param url - a class directory or jar
+     * @return the index, or null if the classpath entry has none or it is out of date
+     */
+    public static GaugeIndex read(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            File file = new File(url.toURI());
+            if (file.isDirectory()) {
+                File index = new File(file, PATH);
+                if (!index.isFile()) {
+                    return null;
+                }
+                List<String[]> entries;
+                try (InputStream in = new FileInputStream(index)) {
+                    entries = read(in);
+                }
+                return describesAllClassFiles(entries, file) ? new GaugeIndex(file, entries) : null;
+            }
+            if (!file.isFile()) {
+                return null;
+            }
+            try (JarFile jar = new JarFile(file)) {
+                ZipEntry index = jar.getEntry(PATH);
+                if (index == null) {
+                    return null;
+                }
+                try (InputStream in = jar.getInputStream(index)) {
+                    return new GaugeIndex(null, read(in));
+                }
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            System.err.println(String.format("Could not read gauge index of %s, scanning it instead: %s", url, e.getMessage()));
+            return null;
+        }
+    }
+
+    private static boolean describesAllClassFiles(List<String[]> entries, File classesDir) throws IOException {
+        ClassFiles indexed = new ClassFiles(entries);
+        for (Map.Entry<String, File> classFile : classFiles(classesDir).entrySet()) {
+            if (!indexed.describes(classFile.getKey(), classFile.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the class files in a class directory by their paths relative to it, with / as separator
+     */
+    static Map<String, File> classFiles(File classesDir) throws IOException {
+        Map<String, File> classFiles = new TreeMap<>();
+        Path root = classesDir.toPath();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(path -> path.toString().endsWith(CLASS_SUFFIX))
+                    .forEach(path -> classFiles.put(root.relativize(path).toString().replace(File.separatorChar, '/'), path.toFile()));
+        }
+        return classFiles;
+    }
+
+    /**
+     * @return the name of the top level class a class file belongs to, or null for package-info and module-info
+     */
+    static String topLevelClassOf(String classFile) {
+        String className = classFile.substring(0, classFile.length() - CLASS_SUFFIX.length()).replace('/', '.');
+        if (className.endsWith("package-info") || className.endsWith("module-info")) {
+            return null;
+        }
+        int nested = className.indexOf('$');
+        return nested < 0 ? className : className.substring(0, nested);
+    }
+
+    static List<String> classFileEntry(String classFile, File file) {
+        return Arrays.asList(CLASS_FILE, classFile, String.valueOf(file.lastModified()), String.valueOf(file.length()));
+    }
+
+    static List<String[]> read(InputStream in) throws IOException {
+        return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    static List<String[]> read(Reader reader) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                entries.add(parse(line));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Adds the indexed entries to a Reflections store, as if the classpath entry had been scanned with the
+     * {@link MethodAnnotationsScanner} and {@link SubTypesScanner}.
+     *
+     * @param store  - store to add the entries to
+     * @param filter - filter for class file names, as passed to Reflections' filterInputsBy
+     */
+    public void addTo(Store store, Predicate<String> filter) {
+        for (String[] entry : entries) {
+            String owner = entry[OWNER];
+            if (!isIncluded(owner, filter)) {
+                continue;
+            }
+            if (METHOD.equals(entry[KIND]) && entry.length > METHOD_KEY) {
+                store.getOrCreate(METHOD_ANNOTATIONS).put(entry[KEY], owner + "." + entry[METHOD_KEY]);
+            } else if (SUBTYPE.equals(entry[KIND]) && entry.length > KEY) {
+                store.getOrCreate(SUB_TYPES).put(entry[KEY], owner);
+            }
+        }
+    }
+
+    // Classes deleted since the index was written (eg. by an incremental compile) are skipped.
+    private boolean isIncluded(String className, Predicate<String> filter) {
+        return includes(filter, className)
+                && (classesDir == null || new File(classesDir, className.replace('.', '/') + ".class").isFile());
+    }
+
+    /**
+     * Applies a Reflections input filter to a class, which Reflections tests with both the path and the name of the
+     * class file.
+     */
+    static boolean includes(Predicate<String> filter, String className) {
+        return filter.test(className.replace('.', '/') + ".class") || filter.test(className + ".class");
+    }
+
+    /**
+     * The class files an index describes: those of the classes compiled along with it, and those recorded unchanged.
+     */
+    static final class ClassFiles {
+        private final Set<String> compiled = new HashSet<>();
+        private final Map<String, List<String>> recorded = new HashMap<>();
+
+        ClassFiles(List<String[]> entries) {
+            for (String[] entry : entries) {
+                if (COMPILED.equals(entry[KIND]) && entry.length > OWNER) {
+                    compiled.add(entry[OWNER]);
+                } else if (CLASS_FILE.equals(entry[KIND]) && entry.length > METHOD_KEY) {
+                    recorded.put(entry[OWNER], Arrays.asList(entry));
+                }
+            }
+        }
+
+        boolean describes(String classFile, File file) {
+            String topLevelClass = topLevelClassOf(classFile);
+            return topLevelClass == null || compiled.contains(topLevelClass) || classFileEntry(classFile, file).equals(recorded.get(classFile));
+        }
+    }
+
+    static String format(List<String> fields) {
+        StringBuilder line = new StringBuilder();
+        for (String field : fields) {
+            if (line.length() > 0) {
+                line.append('\t');
+            }
+            for (int i = 0; i < field.length(); i++) {
+                char c = field.charAt(i);
+                switch (c) {
+                    case '\\':
+                        line.append("\\\\");
+                        break;
+                    case '\t':
+                        line.append("\\t");
+                        break;
+                    case '\n':
+                        line.append("\\n");
+                        break;
+                    case '\r':
+                        line.append("\\r");
+                        break;
+                    default:
+                        line.append(c);
+                }
+            }
+        }
+        return line.toString();
+    }
+
+    static String[] parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                field.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[fields.size()]);
+    }
+}
@@ -0,0 +1,258 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.scan;
+
+import com.thoughtworks.gauge.AfterClassSteps;
+import com.thoughtworks.gauge.AfterScenario;
+import com.thoughtworks.gauge.AfterSpec;
+import com.thoughtworks.gauge.AfterStep;
+import com.thoughtworks.gauge.AfterSuite;
+import com.thoughtworks.gauge.BeforeClassSteps;
+import com.thoughtworks.gauge.BeforeScenario;
+import com.thoughtworks.gauge.BeforeSpec;
+import com.thoughtworks.gauge.BeforeStep;
+import com.thoughtworks.gauge.BeforeSuite;
+import com.thoughtworks.gauge.ClassInitializer;
+import com.thoughtworks.gauge.Step;
+import com.thoughtworks.gauge.execution.StepTimingListener;
+import com.thoughtworks.gauge.execution.parameters.parsers.base.CustomParameterParser;
+import com.thoughtworks.gauge.screenshot.ICustomScreenshotGrabber;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Writes a {@link GaugeIndex} of the compiled classes, so that the runner can skip scanning their bytecode.
+ * <p>
+ * Registered as a service, so it runs whenever gauge-java is on the compile classpath. Entries of an existing index
+ * in the output directory are kept for classes that are not part of the compilation, so that incremental compiles
+ * produce a complete index. The index also records which class files it describes, see {@link GaugeIndex}.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class GaugeIndexProcessor extends AbstractProcessor {
+    private static final List<String> INDEXED_ANNOTATIONS = Arrays.asList(Step.class.getName(),
+            BeforeSuite.class.getName(), AfterSuite.class.getName(),
+            BeforeSpec.class.getName(), AfterSpec.class.getName(),
+            BeforeScenario.class.getName(), AfterScenario.class.getName(),
+            BeforeStep.class.getName(), AfterStep.class.getName(),
+            BeforeClassSteps.class.getName(), AfterClassSteps.class.getName());
+    private static final List<String> INDEXED_SUPERTYPES = Arrays.asList(ClassInitializer.class.getName(),
+            ICustomScreenshotGrabber.class.getName(), CustomParameterParser.class.getName(),
+            StepTimingListener.class.getName());
+
+    private final Map<String, List<List<String>>> entriesByClass = new TreeMap<>();
+    private final Set<String> compiledClasses = new HashSet<>();
+    private final Set<String> compiledTopLevelClasses = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                compiledTopLevelClasses.add(binaryName((TypeElement) element));
+                index((TypeElement) element);
+            }
+        }
+        return false;
+    }
+
+    private void index(TypeElement type) {
+        String className = binaryName(type);
+        compiledClasses.add(className);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+                String annotationName = binaryName((TypeElement) annotation.getAnnotationType().asElement());
+                if (INDEXED_ANNOTATIONS.contains(annotationName)) {
+                    List<String> entry = new ArrayList<>(Arrays.asList(GaugeIndex.METHOD, className, annotationName, methodKey(method)));
+                    if (Step.class.getName().equals(annotationName)) {
+                        entry.addAll(stepTexts(annotation));
+                    }
+                    add(className, entry);
+                }
+            }
+        }
+        for (String supertypeName : INDEXED_SUPERTYPES) {
+            TypeElement supertype = processingEnv.getElementUtils().getTypeElement(supertypeName);
+            if (supertype != null && !supertype.equals(type) && isSubtype(type, supertype)) {
+                add(className, Arrays.asList(GaugeIndex.SUBTYPE, className, supertypeName));
+            }
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            index(nested);
+        }
+    }
+
+    private void add(String className, List<String> entry) {
+        entriesByClass.computeIfAbsent(className, k -> new ArrayList<>()).add(entry);
+    }
+
+    private boolean isSubtype(TypeElement type, TypeElement supertype) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+        return processingEnv.getTypeUtils().isSubtype(erasure, processingEnv.getTypeUtils().erasure(supertype.asType()));
+    }
+
+    // Same format as the method keys Reflections stores, eg. login(java.lang.String, int[])
+    private String methodKey(ExecutableElement method) {
+        List<String> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            parameterTypes.add(typeName(parameter.asType()));
+        }
+        return method.getSimpleName() + "(" + String.join(", ", parameterTypes) + ")";
+    }
+
+    private String typeName(TypeMirror type) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        switch (erasure.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) erasure).getComponentType()) + "[]";
+            case DECLARED:
+                return binaryName((TypeElement) ((DeclaredType) erasure).asElement());
+            default:
+                return erasure.toString();
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private List<String> stepTexts(AnnotationMirror annotation) {
+        List<String> texts = new ArrayList<>();
+        for (AnnotationValue value : annotation.getElementValues().values()) {
+            Object values = value.getValue();
+            if (values instanceof List) {
+                for (Object text : (List<?>) values) {
+                    texts.add(String.valueOf(((AnnotationValue) text).getValue()));
+                }
+            } else {
+                texts.add(String.valueOf(values));
+            }
+        }
+        return texts;
+    }
+
+    private void writeIndex() {
+        Map<String, List<List<String>>> index = new TreeMap<>();
+        List<String[]> existingEntries = readExistingIndex();
+        for (String[] entry : existingEntries) {
+            String kind = entry[GaugeIndex.KIND];
+            if ((GaugeIndex.METHOD.equals(kind) || GaugeIndex.SUBTYPE.equals(kind)) && !compiledClasses.contains(entry[GaugeIndex.OWNER])) {
+                index.computeIfAbsent(entry[GaugeIndex.OWNER], k -> new ArrayList<>()).add(Arrays.asList(entry));
+            }
+        }
+        index.putAll(entriesByClass);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", GaugeIndex.PATH);
+            List<List<String>> classFileEntries = classFileEntries(file, new GaugeIndex.ClassFiles(existingEntries));
+            try (Writer writer = file.openWriter()) {
+                writer.write(GaugeIndex.HEADER);
+                writer.write('\n');
+                for (List<List<String>> entries : index.values()) {
+                    for (List<String> entry : entries) {
+                        writer.write(GaugeIndex.format(entry));
+                        writer.write('\n');
+                    }
+                }
+                for (String className : compiledTopLevelClasses) {
+                    writer.write(GaugeIndex.format(Arrays.asList(GaugeIndex.COMPILED, className)));
+                    writer.write('\n');
+                }
+                for (List<String> entry : classFileEntries) {
+                    writer.write(GaugeIndex.format(entry));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write gauge index, classes will be scanned at runtime: " + e.getMessage());
+        }
+    }
+
+    private List<String[]> readExistingIndex() {
+        List<String[]> entries = new ArrayList<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", GaugeIndex.PATH);
+            try (Reader reader = file.openReader(true)) {
+                for (String[] entry : GaugeIndex.read(reader)) {
+                    if (entry.length > GaugeIndex.OWNER) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No index from an earlier compile
+        }
+        return entries;
+    }
+
+    // Records the class files left from earlier compiles that the existing index described. Their classes were not
+    // compiled now, so they are still described by the carried entries. A class file the existing index did not
+    // describe was compiled without the processor; it is not recorded, so that the new index is not used either.
+    private List<List<String>> classFileEntries(FileObject index, GaugeIndex.ClassFiles indexed) throws IOException {
+        List<List<String>> entries = new ArrayList<>();
+        if (!"file".equals(index.toUri().getScheme())) {
+            return entries;
+        }
+        File classesDir = new File(index.toUri());
+        for (int i = 0; i < GaugeIndex.PATH.split("/").length && classesDir != null; i++) {
+            classesDir = classesDir.getParentFile();
+        }
+        if (classesDir == null || !classesDir.isDirectory()) {
+            return entries;
+        }
+        for (Map.Entry<String, File> classFile : GaugeIndex.classFiles(classesDir).entrySet()) {
+            String topLevelClass = GaugeIndex.topLevelClassOf(classFile.getKey());
+            if (topLevelClass != null && !compiledTopLevelClasses.contains(topLevelClass) && indexed.describes(classFile.getKey(), classFile.getValue())) {
+                entries.add(GaugeIndex.classFileEntry(classFile.getKey(), classFile.getValue()));
+            }
+        }
+        return entries;
+    }
+}
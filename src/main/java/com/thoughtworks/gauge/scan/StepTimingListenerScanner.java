@@ -0,0 +1,48 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.scan;
+
+import com.thoughtworks.gauge.execution.StepTimingListener;
+import com.thoughtworks.gauge.execution.StepTimings;
+import org.reflections.Reflections;
+
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+/**
+ * Scans for a {@link StepTimingListener} and registers it, so that steps are timed only when a project asks for it.
+ */
+public class StepTimingListenerScanner implements IScanner {
+    @Override
+    public void scan(Reflections reflections) {
+        Set<Class<? extends StepTimingListener>> listeners = reflections.getSubTypesOf(StepTimingListener.class);
+        listeners.removeIf(listener -> listener.isInterface() || Modifier.isAbstract(listener.getModifiers()));
+        if (listeners.isEmpty()) {
+            return;
+        }
+        if (listeners.size() > 1) {
+            System.out.println("[Warning] Multiple step timing listeners found, steps will not be timed.");
+            return;
+        }
+        Class<? extends StepTimingListener> listener = listeners.iterator().next();
+        try {
+            StepTimings.setListener(listener.newInstance());
+            System.out.println(String.format("Reporting step timings to %s", listener.getName()));
+        } catch (InstantiationException | IllegalAccessException e) {
+            System.err.println(String.format("Could not instantiate step timing listener %s: %s", listener.getName(), e));
+        }
+    }
+}
@@ -17,17 +17,27 @@ package com.thoughtworks.gauge.scan;
 
 import com.thoughtworks.gauge.Step;
 import com.thoughtworks.gauge.StepValue;
+import com.thoughtworks.gauge.connection.GaugeConnectionPool;
 import com.thoughtworks.gauge.connection.GaugeConnector;
 import com.thoughtworks.gauge.registry.StepRegistry;
 import org.reflections.Reflections;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Scans for step implementations.
+ * Step texts are parsed locally. Only texts outside the grammar the local parser supports
+ * ({@link StepValue#canParse(String)}) are sent to gauge, all up front, spread over a few API connections and resolved
+ * together, so that gauge parses them, and reports the errors in them, the same way it always has.
  */
 public class StepsScanner implements IScanner {
+    private static final int API_CONNECTIONS = 4;
     private GaugeConnector connector;
     private StepRegistry registry;
 
@@ -42,14 +52,53 @@ public class StepsScanner implements IScanner {
     }
 
     private void buildStepRegistry(Set<Method> stepImplementations) {
+        List<Method> methods = new ArrayList<>();
+        List<String> stepNames = new ArrayList<>();
+        List<StepValue> stepValues = new ArrayList<>();
+        int unparsed = 0;
         for (Method method : stepImplementations) {
             Step annotation = method.getAnnotation(Step.class);
             if (annotation != null) {
                 for (String stepName : annotation.value()) {
-                    StepValue stepValue = connector.getGaugeApiConnection().getStepValue(stepName);
-                    registry.addStepImplementation(stepValue, method);
+                    StepValue stepValue = parse(stepName);
+                    methods.add(method);
+                    stepNames.add(stepName);
+                    stepValues.add(stepValue);
+                    unparsed += stepValue == null ? 1 : 0;
                 }
             }
         }
+        if (unparsed > 0) {
+            resolveWithGauge(stepNames, stepValues, Math.min(unparsed, API_CONNECTIONS));
+        }
+        for (int i = 0; i < methods.size(); i++) {
+            if (stepValues.get(i) != null) {
+                registry.addStepImplementation(stepValues.get(i), methods.get(i));
+            }
+        }
+    }
+
+    private static StepValue parse(String stepName) {
+        return StepValue.canParse(stepName) ? StepValue.parse(stepName) : null;
+    }
+
+    private void resolveWithGauge(List<String> stepNames, List<StepValue> stepValues, int connections) {
+        List<CompletableFuture<StepValue>> responses = new ArrayList<>(stepNames.size());
+        try (GaugeConnectionPool pool = connector.getGaugeApiConnectionPool(connections)) {
+            for (int i = 0; i < stepNames.size(); i++) {
+                responses.add(stepValues.get(i) == null ? pool.next().getStepValueAsync(stepNames.get(i), false) : null);
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                if (responses.get(i) != null) {
+                    try {
+                        stepValues.set(i, responses.get(i).join());
+                    } catch (CompletionException e) {
+                        e.getCause().printStackTrace();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
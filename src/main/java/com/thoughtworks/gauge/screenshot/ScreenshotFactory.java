@@ -17,6 +17,7 @@ package com.thoughtworks.gauge.screenshot;
 
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.GaugeConstant;
+import com.thoughtworks.gauge.jfr.RunnerEvents;
 
 import javax.imageio.ImageIO;
 
@@ -46,7 +47,10 @@ public class ScreenshotFactory {
 
     public byte[] getScreenshotBytes() {
         if (shouldTakeScreenshot()) {
-            return takeScreenshot();
+            Object event = RunnerEvents.beginScreenshot();
+            byte[] screenshot = takeScreenshot();
+            RunnerEvents.commitScreenshot(event, customScreenshotGrabber != null, screenshot.length);
+            return screenshot;
         }
         return new byte[0];
     }
@@ -17,6 +17,11 @@ package com.thoughtworks.gauge.tag;
 
 import java.util.List;
 
+/**
+ * @deprecated hooks are matched with {@link TagExpression}; use {@link TagExpression#of(List, com.thoughtworks.gauge.Operator)}
+ * with {@link com.thoughtworks.gauge.Operator#OR} instead. Unlike that, this compares the tags literally.
+ */
+@Deprecated
 public class OrMatcher implements SimpleTagMatcher {
     public boolean isMatch(List<String> tagsToMatch, List<String> tagsToMatchWith) {
         if (tagsToMatch.size() == 0) {
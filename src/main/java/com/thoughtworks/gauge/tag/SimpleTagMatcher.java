@@ -17,6 +17,10 @@ package com.thoughtworks.gauge.tag;
 
 import java.util.List;
 
+/**
+ * @deprecated see {@link AndMatcher} and {@link OrMatcher}.
+ */
+@Deprecated
 public interface SimpleTagMatcher {
     boolean isMatch(List<String> tagsToMatch, List<String> tagsToMatchWith);
 }
@@ -0,0 +1,170 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.tag;
+
+import com.thoughtworks.gauge.Operator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A tag expression compiled into a predicate over interned tags (see {@link TagIds}).
+ * <p>
+ * The grammar is the one Gauge uses for {@code --tags}: tag names combined with {@code !} (not), {@code &} or
+ * {@code ,} (and), {@code |} (or) and parentheses. {@code !} binds tightest and {@code |} loosest, so
+ * {@code "smoke & !slow | wip"} reads as {@code "(smoke & (!slow)) | wip"}.
+ * </p>
+ */
+public final class TagExpression {
+    private static final TagExpression ANY = new TagExpression("", tags -> true);
+    private static final String OPERATORS = "!&,|()";
+
+    private final String expression;
+    private final Predicate<BitSet> predicate;
+
+    private TagExpression(String expression, Predicate<BitSet> predicate) {
+        this.expression = expression;
+        this.predicate = predicate;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is not valid.
+     */
+    public static TagExpression parse(String expression) {
+        if (expression.trim().isEmpty()) {
+            return ANY;
+        }
+        return new TagExpression(expression, new Parser(expression).parse());
+    }
+
+    /**
+     * Compiles the tags of a hook annotation: every entry is an expression, and the entries are combined with the
+     * given operator. No entries match every execution.
+     *
+     * @throws IllegalArgumentException if any entry is not a valid expression.
+     */
+    public static TagExpression of(List<String> expressions, Operator operator) {
+        if (expressions.isEmpty()) {
+            return ANY;
+        }
+        Predicate<BitSet> predicate = null;
+        for (String expression : expressions) {
+            Predicate<BitSet> entry = parse(expression).predicate;
+            predicate = predicate == null ? entry : operator == Operator.OR ? predicate.or(entry) : predicate.and(entry);
+        }
+        return new TagExpression(String.join(operator == Operator.OR ? " | " : " & ", expressions), predicate);
+    }
+
+    public boolean matches(BitSet tags) {
+        return predicate.test(tags);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static final class Parser {
+        private final String expression;
+        private final List<String> tokens = new ArrayList<>();
+        private int position;
+
+        Parser(String expression) {
+            this.expression = expression;
+            tokenize();
+        }
+
+        Predicate<BitSet> parse() {
+            Predicate<BitSet> predicate = or();
+            if (position < tokens.size()) {
+                throw invalid("unexpected '" + tokens.get(position) + "'");
+            }
+            return predicate;
+        }
+
+        private Predicate<BitSet> or() {
+            Predicate<BitSet> predicate = and();
+            while (accept("|")) {
+                predicate = predicate.or(and());
+            }
+            return predicate;
+        }
+
+        private Predicate<BitSet> and() {
+            Predicate<BitSet> predicate = unary();
+            while (accept("&") || accept(",")) {
+                predicate = predicate.and(unary());
+            }
+            return predicate;
+        }
+
+        private Predicate<BitSet> unary() {
+            if (accept("!")) {
+                return unary().negate();
+            }
+            if (accept("(")) {
+                Predicate<BitSet> predicate = or();
+                if (!accept(")")) {
+                    throw invalid("missing ')'");
+                }
+                return predicate;
+            }
+            if (position >= tokens.size()) {
+                throw invalid("expected a tag at the end");
+            }
+            String token = tokens.get(position++);
+            if (token.length() == 1 && OPERATORS.contains(token)) {
+                throw invalid("expected a tag before '" + token + "'");
+            }
+            int id = TagIds.idOf(token);
+            return tags -> tags.get(id);
+        }
+
+        private boolean accept(String operator) {
+            if (position < tokens.size() && tokens.get(position).equals(operator)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void tokenize() {
+            StringBuilder name = new StringBuilder();
+            for (char c : expression.toCharArray()) {
+                if (OPERATORS.indexOf(c) >= 0) {
+                    addName(name);
+                    tokens.add(String.valueOf(c));
+                } else {
+                    name.append(c);
+                }
+            }
+            addName(name);
+        }
+
+        private void addName(StringBuilder name) {
+            String tag = name.toString().trim();
+            if (!tag.isEmpty()) {
+                tokens.add(tag);
+            }
+            name.setLength(0);
+        }
+
+        private IllegalArgumentException invalid(String reason) {
+            return new IllegalArgumentException(String.format("Invalid tag expression \"%s\": %s", expression, reason));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.tag;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns tag names to small integer ids so that sets of tags can be held and matched as {@link BitSet}s, and lists of
+ * tags to shared read-only lists.
+ */
+public final class TagIds {
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final Map<List<String>, List<String>> LISTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ExecutionTags> LAST_EXECUTION_TAGS = new ThreadLocal<>();
+
+    private TagIds() {
+    }
+
+    public static int idOf(String tag) {
+        Integer id = IDS.get(tag);
+        return id != null ? id : IDS.computeIfAbsent(tag, t -> NEXT_ID.getAndIncrement());
+    }
+
+    public static BitSet bitsOf(Collection<String> tags) {
+        BitSet bits = new BitSet();
+        addTo(bits, tags);
+        return bits;
+    }
+
+    public static void addTo(BitSet bits, Collection<String> tags) {
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            bits.set(idOf(tag));
+        }
+    }
+
+    /**
+     * Gets the ids of the tags of a spec and scenario. The ids of the last spec and scenario are kept per thread, so
+     * while the same
+     * {@link #intern(List) interned} tag lists are passed, as they are for all steps of a scenario, the same bits are
+     * returned without looking up any tag.
+     *
+     * @return the ids of the tags, which must not be changed
+     */
+    public static BitSet bitsOf(List<String> specTags, List<String> scenarioTags) {
+        ExecutionTags last = LAST_EXECUTION_TAGS.get();
+        if (last != null && last.specTags == specTags && last.scenarioTags == scenarioTags) {
+            return last.bits;
+        }
+        BitSet bits = new BitSet();
+        addTo(bits, specTags);
+        addTo(bits, scenarioTags);
+        LAST_EXECUTION_TAGS.set(new ExecutionTags(specTags, scenarioTags, bits));
+        return bits;
+    }
+
+    /**
+     * @return a read-only list equal to the given tags, the same one for every equal list.
+     */
+    public static List<String> intern(List<String> tags) {
+        if (tags.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> interned = LISTS.get(tags);
+        return interned != null ? interned : LISTS.computeIfAbsent(copyOf(tags), list -> list);
+    }
+
+    private static List<String> copyOf(List<String> tags) {
+        return Collections.unmodifiableList(new ArrayList<>(tags));
+    }
+
+    private static final class ExecutionTags {
+        private final List<String> specTags;
+        private final List<String> scenarioTags;
+        private final BitSet bits;
+
+        ExecutionTags(List<String> specTags, List<String> scenarioTags, BitSet bits) {
+            this.specTags = specTags;
+            this.scenarioTags = scenarioTags;
+            this.bits = bits;
+        }
+    }
+}
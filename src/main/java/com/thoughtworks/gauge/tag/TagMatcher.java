@@ -19,21 +19,13 @@ import com.thoughtworks.gauge.Operator;
 
 import java.util.List;
 
+/**
+ * @deprecated hooks are matched with {@link TagExpression}; use {@link TagExpression#of(List, Operator)} instead.
+ * This matches the way hooks do, so each tag may be a tag expression.
+ */
+@Deprecated
 public class TagMatcher {
     public boolean isMatch(List<String> tags, Operator operator, List<String> allTags) {
-        return new TagMatcherFactory().matcherFor(operator).isMatch(tags, allTags);
-    }
-
-    private class TagMatcherFactory {
-        public SimpleTagMatcher matcherFor(Operator operator) {
-            switch (operator) {
-                case OR:
-                    return new OrMatcher();
-                case AND:
-                    return new AndMatcher();
-                default:
-                    return new AndMatcher();
-            }
-        }
+        return TagExpression.of(tags, operator).matches(TagIds.bitsOf(allTags));
     }
 }
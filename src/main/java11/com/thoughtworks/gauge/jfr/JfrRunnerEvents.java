@@ -0,0 +1,226 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.lang.reflect.Method;
+
+/**
+ * The JFR events of {@link RunnerEvents}. Loaded by name, and only built on Java 11 and later, so that the rest of the
+ * runner still builds and runs without {@code jdk.jfr}.
+ * <p>
+ * Whether an event is enabled is asked of a shared instance of it, so that events are only allocated while they are
+ * recorded.
+ * </p>
+ */
+final class JfrRunnerEvents implements EventRecorder {
+    private static final DispatchEvent DISPATCH = new DispatchEvent();
+    private static final StepEvent STEP = new StepEvent();
+    private static final HookEvent HOOK = new HookEvent();
+    private static final ParameterConversionEvent PARAMETER_CONVERSION = new ParameterConversionEvent();
+    private static final ClasspathScanEvent CLASSPATH_SCAN = new ClasspathScanEvent();
+    private static final ScreenshotEvent SCREENSHOT = new ScreenshotEvent();
+
+    JfrRunnerEvents() {
+    }
+
+    @Override
+    public boolean isDispatchEnabled() {
+        return DISPATCH.isEnabled();
+    }
+
+    @Override
+    public Object beginDispatch() {
+        return DISPATCH.isEnabled() ? begin(new DispatchEvent()) : null;
+    }
+
+    @Override
+    public void commitDispatch(Object event, String messageType, int size, long decodeNanos, long processNanos, long writeNanos) {
+        DispatchEvent dispatch = (DispatchEvent) event;
+        dispatch.messageType = messageType;
+        dispatch.size = size;
+        dispatch.decodeTime = decodeNanos;
+        dispatch.processTime = processNanos;
+        dispatch.writeTime = writeNanos;
+        dispatch.commit();
+    }
+
+    @Override
+    public Object beginStep() {
+        return STEP.isEnabled() ? begin(new StepEvent()) : null;
+    }
+
+    @Override
+    public void commitStep(Object event, String stepText, boolean failed) {
+        StepEvent step = (StepEvent) event;
+        step.stepText = stepText;
+        step.failed = failed;
+        step.commit();
+    }
+
+    @Override
+    public Object beginHook() {
+        return HOOK.isEnabled() ? begin(new HookEvent()) : null;
+    }
+
+    @Override
+    public void commitHook(Object event, Method method, boolean failed) {
+        HookEvent hook = (HookEvent) event;
+        hook.hook = method.getDeclaringClass().getName() + "." + method.getName();
+        hook.failed = failed;
+        hook.commit();
+    }
+
+    @Override
+    public Object beginParameterConversion() {
+        return PARAMETER_CONVERSION.isEnabled() ? begin(new ParameterConversionEvent()) : null;
+    }
+
+    @Override
+    public void commitParameterConversion(Object event, String stepText, int parameterCount, boolean failed) {
+        ParameterConversionEvent conversion = (ParameterConversionEvent) event;
+        conversion.stepText = stepText;
+        conversion.parameterCount = parameterCount;
+        conversion.failed = failed;
+        conversion.commit();
+    }
+
+    @Override
+    public Object beginClasspathScan() {
+        return CLASSPATH_SCAN.isEnabled() ? begin(new ClasspathScanEvent()) : null;
+    }
+
+    @Override
+    public void commitClasspathScan(Object event, String phase, Object target) {
+        ClasspathScanEvent scan = (ClasspathScanEvent) event;
+        scan.phase = phase;
+        scan.target = String.valueOf(target);
+        scan.commit();
+    }
+
+    @Override
+    public Object beginScreenshot() {
+        return SCREENSHOT.isEnabled() ? begin(new ScreenshotEvent()) : null;
+    }
+
+    @Override
+    public void commitScreenshot(Object event, boolean custom, int size) {
+        ScreenshotEvent screenshot = (ScreenshotEvent) event;
+        screenshot.custom = custom;
+        screenshot.size = size;
+        screenshot.commit();
+    }
+
+    private static Event begin(Event event) {
+        event.begin();
+        return event;
+    }
+
+    @Name("gauge.MessageDispatch")
+    @Label("Message Dispatch")
+    @Category({"Gauge", "Runner"})
+    @Description("A message from Gauge core, processed and answered")
+    static final class DispatchEvent extends Event {
+        @Label("Message Type")
+        private String messageType;
+
+        @Label("Size")
+        @DataAmount
+        private int size;
+
+        @Label("Decode Time")
+        @Timespan
+        private long decodeTime;
+
+        @Label("Process Time")
+        @Timespan
+        private long processTime;
+
+        @Label("Write Time")
+        @Timespan
+        private long writeTime;
+    }
+
+    @Name("gauge.StepExecution")
+    @Label("Step Execution")
+    @Category({"Gauge", "Runner"})
+    @Description("A step implementation executed, including the conversion of its parameters")
+    static final class StepEvent extends Event {
+        @Label("Step Text")
+        private String stepText;
+
+        @Label("Failed")
+        private boolean failed;
+    }
+
+    @Name("gauge.HookExecution")
+    @Label("Hook Execution")
+    @Category({"Gauge", "Runner"})
+    static final class HookEvent extends Event {
+        @Label("Hook")
+        private String hook;
+
+        @Label("Failed")
+        private boolean failed;
+    }
+
+    @Name("gauge.ParameterConversion")
+    @Label("Parameter Conversion")
+    @Category({"Gauge", "Runner"})
+    @Description("The parameters of a step converted to the types of its implementation")
+    static final class ParameterConversionEvent extends Event {
+        @Label("Step Text")
+        private String stepText;
+
+        @Label("Parameter Count")
+        private int parameterCount;
+
+        @Label("Failed")
+        private boolean failed;
+    }
+
+    @Name("gauge.ClasspathScan")
+    @Label("Classpath Scan")
+    @Category({"Gauge", "Runner"})
+    @Description("A phase of scanning the classpath for steps, hooks and extensions")
+    static final class ClasspathScanEvent extends Event {
+        @Label("Phase")
+        private String phase;
+
+        @Label("Target")
+        private String target;
+    }
+
+    @Name("gauge.Screenshot")
+    @Label("Screenshot")
+    @Category({"Gauge", "Runner"})
+    static final class ScreenshotEvent extends Event {
+        @Label("Custom")
+        @Description("Taken by the custom screenshot grabber of the project")
+        private boolean custom;
+
+        @Label("Size")
+        @DataAmount
+        private int size;
+    }
+}
@@ -0,0 +1,65 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClasspathFilterTest {
+
+    @Test
+    public void shouldScanOnlyClassesInPackagesToScan() {
+        ClasspathFilter filter = new ClasspathFilter(" com.example.steps , org.acme");
+
+        assertEquals(Arrays.asList("com.example.steps", "org.acme"), filter.getPackagesToScan());
+        assertTrue(filter.includesClassFile("com/example/steps/LoginSteps.class"));
+        assertTrue(filter.includesClassFile("com.example.steps.admin.AdminSteps.class"));
+        assertTrue(filter.includesClassFile("org/acme/Hooks.class"));
+        assertFalse(filter.includesClassFile("com/example/stepsextra/Steps.class"));
+        assertFalse(filter.includesClassFile("com/example/Steps.class"));
+        assertFalse(filter.includesClassFile("com/example/steps.class"));
+        assertFalse(filter.includesClassFile("com/example/steps/steps.properties"));
+    }
+
+    @Test
+    public void shouldScanAllClassesWithoutPackagesToScan() {
+        ClasspathFilter filter = new ClasspathFilter(null);
+
+        assertTrue(filter.getPackagesToScan().isEmpty());
+        assertTrue(filter.includesClassFile("com/example/Steps.class"));
+        assertTrue(filter.includesClassFile("Steps.class"));
+        assertTrue(filter.includesClassFile("org/apache/project/Steps.class"));
+        assertTrue(filter.includesClassFile("kotlin.steps.Steps.class"));
+        assertFalse(filter.includesClassFile("com/example/Steps.java"));
+    }
+
+    @Test
+    public void shouldSkipThirdPartyJarsWithoutPackagesToScan() throws MalformedURLException {
+        ClasspathFilter filter = new ClasspathFilter("");
+
+        assertFalse(filter.includesClasspathEntry(new URL("file:/repo/guava-24.0-jre.jar")));
+        assertFalse(filter.includesClasspathEntry(new URL("file:/repo/selenium-remote-driver-3.141.59.jar")));
+        assertTrue(filter.includesClasspathEntry(new URL("file:/project/libs/guava-steps-1.0.jar")));
+        assertTrue(filter.includesClasspathEntry(new URL("file:/project/target/classes/")));
+        assertTrue(new ClasspathFilter("com.example").includesClasspathEntry(new URL("file:/repo/guava-24.0-jre.jar")));
+    }
+}
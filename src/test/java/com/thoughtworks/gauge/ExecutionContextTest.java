@@ -63,6 +63,21 @@ public class ExecutionContextTest extends TestCase {
         assertTrue(allTags.contains(tag3));
     }
 
+    public void testGettingSpecScenarioAndStepFromSuppliersWhenFirstAskedFor() throws Exception {
+        int[] calls = new int[1];
+        Specification specification = specWithTags("tag1");
+        ExecutionContext executionContext = new ExecutionContext(() -> {
+            calls[0]++;
+            return specification;
+        }, Scenario::new, StepDetails::new);
+
+        assertEquals(0, calls[0]);
+        assertSame(specification, executionContext.getCurrentSpecification());
+        assertSame(specification, executionContext.getCurrentSpecification());
+        assertEquals(Arrays.asList("tag1"), executionContext.getAllTags());
+        assertEquals(1, calls[0]);
+    }
+
     private Specification specWithTags(String... tags) {
         List<String> tagsList = Arrays.asList(tags);
         return new Specification("foo", "foo.spec", false, tagsList);
@@ -0,0 +1,125 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelRowsTest {
+    private Table table;
+
+    @Before
+    public void setUp() {
+        clearOutput();
+        table = new Table(Arrays.asList("id", "delay"));
+        for (int i = 0; i < 8; i++) {
+            table.addRow(Arrays.asList(String.valueOf(i), String.valueOf((8 - i) * 5)));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        clearOutput();
+    }
+
+    @Test
+    public void shouldAddMessagesOfRowsInRowOrder() {
+        Gauge.writeMessage("before");
+
+        table.parallelForEach(row -> {
+            sleep(Long.parseLong(row.getCell("delay")));
+            Gauge.writeMessage("row " + row.getCell("id"));
+            Gauge.getScreenshots().add(new byte[]{Byte.parseByte(row.getCell("id"))});
+        }, 4);
+
+        assertEquals(Arrays.asList("before", "row 0", "row 1", "row 2", "row 3", "row 4", "row 5", "row 6", "row 7"), Gauge.getMessages());
+        assertEquals(8, Gauge.getScreenshots().size());
+        assertArrayEquals(new byte[]{7}, Gauge.getScreenshots().get(7));
+    }
+
+    @Test
+    public void shouldRunRowsConcurrently() throws Exception {
+        CountDownLatch allStarted = new CountDownLatch(table.getTableRows().size());
+        Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        table.parallelForEach(row -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.countDown();
+            try {
+                assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, 8);
+
+        assertEquals(8, threads.size());
+    }
+
+    @Test
+    public void shouldReportEveryFailedRowAfterRunningAllRows() {
+        Set<String> done = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        try {
+            table.parallelForEach(row -> {
+                int id = Integer.parseInt(row.getCell("id"));
+                Gauge.writeMessage("row " + id);
+                if (id % 3 == 1) {
+                    throw new IllegalStateException("failed " + id);
+                }
+                done.add(row.getCell("id"));
+            }, 3);
+            fail("Expected the failed rows to be reported");
+        } catch (RowExecutionException e) {
+            assertEquals(Arrays.asList(1, 4, 7), Arrays.asList(e.getFailures().keySet().toArray()));
+            assertEquals("failed 1", e.getCause().getMessage());
+            assertEquals(2, e.getSuppressed().length);
+            assertTrue(e.getMessage().startsWith("3 of 8 rows failed."));
+            assertTrue(e.getMessage().contains("Row 4: java.lang.IllegalStateException: failed 4"));
+        }
+        assertEquals(5, done.size());
+        assertEquals(8, Gauge.getMessages().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectParallelismBelowOne() {
+        table.parallelForEach(row -> {
+        }, 0);
+    }
+
+    private static void clearOutput() {
+        Gauge.getMessages().clear();
+        Gauge.getScreenshots().clear();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
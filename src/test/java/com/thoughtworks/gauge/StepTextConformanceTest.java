@@ -0,0 +1,90 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Checks the local step text parser against the step values Gauge core answers, listed in gauge-core/step-values.txt.
+public class StepTextConformanceTest {
+
+    @Test
+    public void shouldParseSupportedStepTextsLikeGauge() throws IOException {
+        for (GaugeStepValue expected : gaugeStepValues("local")) {
+            assertTrue(expected.stepText, StepValue.canParse(expected.stepText));
+            assertEquals(expected.stepText, expected.stepValue, StepValue.parse(expected.stepText));
+        }
+    }
+
+    @Test
+    public void shouldLeaveOtherStepTextsToGauge() throws IOException {
+        for (GaugeStepValue expected : gaugeStepValues("gauge")) {
+            assertFalse(expected.stepText, StepValue.canParse(expected.stepText));
+        }
+    }
+
+    @Test
+    public void shouldLeaveMalformedStepTextsToGauge() {
+        for (String stepText : Arrays.asList("a {} step", "say \"hello", "say <hello", "a\ttab", "   ", "say <a<b>>")) {
+            assertFalse(stepText, StepValue.canParse(stepText));
+        }
+    }
+
+    public static List<GaugeStepValue> gaugeStepValues(String parser) throws IOException {
+        List<GaugeStepValue> stepValues = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                StepTextConformanceTest.class.getResourceAsStream("/gauge-core/step-values.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                if (!line.startsWith("#") && columns[0].equals(parser)) {
+                    List<String> parameters = Arrays.asList(columns).subList(4, columns.length);
+                    stepValues.add(new GaugeStepValue(columns[1], new StepValue(columns[2], columns[3], new ArrayList<>(parameters))));
+                }
+            }
+        }
+        return stepValues;
+    }
+
+    public static final class GaugeStepValue {
+        private final String stepText;
+        private final StepValue stepValue;
+
+        GaugeStepValue(String stepText, StepValue stepValue) {
+            this.stepText = stepText;
+            this.stepValue = stepValue;
+        }
+
+        public String getStepText() {
+            return stepText;
+        }
+
+        public StepValue getStepValue() {
+            return stepValue;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+// Expected values follow the rules of the step text parser in Gauge core.
+public class StepValueTest {
+
+    @Test
+    public void shouldParseStepWithoutParameters() {
+        assertEquals(new StepValue("a simple step", "a simple step", Collections.<String>emptyList()), StepValue.parse("  a simple step "));
+    }
+
+    @Test
+    public void shouldParseStaticAndDynamicParameters() {
+        StepValue expected = new StepValue("login as {} with {}", "login as <user> with <secret>", Arrays.asList("user", "secret"));
+
+        assertEquals(expected, StepValue.parse("login as <user> with \"secret\""));
+    }
+
+    @Test
+    public void shouldKeepEscapedCharactersInParameters() {
+        StepValue stepValue = StepValue.parse("say \"hello \\\"world\\\"\" and \"a\\tb\"");
+
+        assertEquals("say {} and {}", stepValue.getStepText());
+        assertEquals(Arrays.asList("hello \"world\"", "a\tb"), stepValue.getParameters());
+    }
+
+    @Test
+    public void shouldAllowReservedCharactersInsideParameters() {
+        assertEquals(Collections.singletonList("{x}"), StepValue.parse("use <{x}>").getParameters());
+    }
+
+    @Test
+    public void shouldAddTableParameterForInlineTables() {
+        StepValue expected = new StepValue("check {} against {}", "check <item> against <table>", Arrays.asList("item", "table"));
+
+        assertEquals(expected, StepValue.parse("check <item> against", true));
+    }
+
+    @Test(expected = StepTextParseException.class)
+    public void shouldRejectReservedCharacters() {
+        StepValue.parse("a {} step");
+    }
+
+    @Test(expected = StepTextParseException.class)
+    public void shouldRejectUnterminatedStaticParameter() {
+        StepValue.parse("say \"hello");
+    }
+
+    @Test(expected = StepTextParseException.class)
+    public void shouldRejectUnterminatedDynamicParameter() {
+        StepValue.parse("say <hello");
+    }
+}
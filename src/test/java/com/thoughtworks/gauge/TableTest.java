@@ -21,7 +21,13 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -30,6 +36,8 @@ import org.junit.rules.ExpectedException;
 
 import com.google.common.base.Joiner;
 
+import gauge.messages.Spec;
+
 public class TableTest {
 
     private Table table;
@@ -258,4 +266,339 @@ public class TableTest {
 
         assertFalse(table.equals(otherTable));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldReadTableFromProtoTable() {
+        Table protoTable = Table.from(protoTable(Arrays.asList("col1", "col2"), Arrays.asList("foo1", "bar1"), Arrays.asList("foo2", "bar2")));
+
+        assertEquals(table, protoTable);
+        assertEquals(table.hashCode(), protoTable.hashCode());
+        assertEquals(table.toString(), protoTable.toString());
+        assertEquals(Arrays.asList("bar1", "bar2"), protoTable.getColumnValues("col2"));
+        assertEquals("foo2", protoTable.getTableRows().get(1).getCell("col1"));
+        assertEquals("", protoTable.getTableRows().get(1).getCell("invalid"));
+        assertEquals(table.getTableRows().get(0).toString(), protoTable.getTableRows().get(0).toString());
+    }
+
+    @Test
+    public void shouldAddRowsToProtoTable() {
+        Table protoTable = Table.from(protoTable(Arrays.asList("col1", "col2"), Arrays.asList("foo1", "bar1")));
+        protoTable.addRow(Arrays.asList("foo2", "bar2"));
+
+        assertEquals(table, protoTable);
+        assertEquals(Arrays.asList("foo1", "foo2"), protoTable.getColumnValues(0));
+    }
+
+    @Test
+    public void shouldRejectProtoTableWithRowSizeMismatch() {
+        thrown.expect(RowSizeMismatchException.class);
+        thrown.expectMessage("Row size mismatch. Expected row size: 2. Obtained row size: 1.");
+        Table.from(protoTable(Arrays.asList("col1", "col2"), Arrays.asList("foo1")));
+    }
+
+    @Test
+    public void shouldKeepCellsAddedToARowOfTheTable() {
+        TableRow row = table.getTableRows().get(0);
+        row.addCell("col3", "baz1");
+
+        assertEquals(3, table.getTableRows().get(0).size());
+        assertEquals("baz1", table.getTableRows().get(0).getCell("col3"));
+        assertEquals("foo1", table.getTableRows().get(0).getCell("col1"));
+    }
+
+    @Test
+    public void shouldUseFirstColumnForRepeatedColumnNames() {
+        Table repeated = new Table(Arrays.asList("col1", "col1", "col2"));
+        repeated.addRow(Arrays.asList("a", "b", "c"));
+
+        TableRow row = repeated.getTableRows().get(0);
+        assertEquals(2, row.size());
+        assertEquals("a", row.getCell("col1"));
+        assertEquals(Arrays.asList("a", "c"), row.getCellValues());
+    }
+
+    @Test
+    public void shouldMapRowsToObjects() {
+        Table orders = Table.from(protoTable(Arrays.asList("Item", "Unit Price", "quantity", "express", "status"),
+                Arrays.asList("pen", "1.5", "3", "true", "SHIPPED"),
+                Arrays.asList("ink", "4", "1", "false", "OPEN")));
+
+        List<Order> rows = orders.rowsAs(Order.class);
+
+        assertEquals(2, rows.size());
+        assertEquals("pen", rows.get(0).item);
+        assertEquals(1.5, rows.get(0).unitPrice, 0);
+        assertEquals(Integer.valueOf(3), rows.get(0).quantity);
+        assertTrue(rows.get(0).express);
+        assertEquals(Status.SHIPPED, rows.get(0).status);
+        assertEquals(Integer.valueOf(1), orders.stream(Order.class).skip(1).findFirst().get().quantity);
+    }
+
+    @Test
+    public void shouldLeaveFieldsWithoutColumnsUnset() {
+        List<Order> rows = table.rowsAs(Order.class);
+
+        assertEquals(2, rows.size());
+        assertEquals(null, rows.get(0).item);
+        assertEquals(0, rows.get(0).unitPrice, 0);
+    }
+
+    @Test
+    public void shouldReportCellsThatCannotBeConverted() {
+        Table orders = new Table(Arrays.asList("quantity"));
+        orders.addRow(Arrays.asList("many"));
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Cannot convert \"many\" to Integer for quantity.");
+        orders.rowsAs(Order.class);
+    }
+
+    @Test
+    public void shouldIgnoreFieldsOfUnsupportedTypesWithoutColumns() {
+        List<Shipment> rows = table.rowsAs(Shipment.class);
+
+        assertEquals("foo2", rows.get(1).col1);
+        assertEquals(null, rows.get(1).parts);
+        assertEquals(0, rows.get(1).grade);
+    }
+
+    @Test
+    public void shouldRejectColumnsOfFieldsOfUnsupportedTypes() {
+        Table shipments = new Table(Arrays.asList("col1", "Parts"));
+        shipments.addRow(Arrays.asList("foo", "a, b"));
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Shipment.parts has the unsupported type java.util.List.");
+        shipments.rowsAs(Shipment.class);
+    }
+
+    @Test
+    public void shouldMapEnumsLikeStepParameters() throws Exception {
+        Table orders = new Table(Arrays.asList("status"));
+        orders.addRow(Arrays.asList("SHIPPED"));
+        orders.addRow(Arrays.asList("shipped"));
+
+        assertEquals(Status.SHIPPED, orders.stream(Order.class).findFirst().get().status);
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Cannot convert \"shipped\" to Status for status.");
+        orders.rowsAs(Order.class);
+    }
+
+    @Test
+    public void shouldRejectTypesWithoutNoArgumentConstructor() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Cannot map table rows to java.lang.Integer");
+        table.rowsAs(Integer.class);
+    }
+
+    @Test
+    public void shouldFindRowsByColumnValue() {
+        Table products = products();
+
+        assertEquals(Arrays.asList("pen", "ink"), cells(products.where("category", "office"), "name"));
+        assertEquals(Arrays.asList("tea"), cells(products.where("category", "food"), "name"));
+        assertTrue(products.where("category", "toys").isEmpty());
+        assertTrue(products.where("invalid", "office").isEmpty());
+    }
+
+    @Test
+    public void shouldGroupRowsByColumnValue() {
+        Map<String, List<TableRow>> groups = products().groupBy("category");
+
+        assertEquals(Arrays.asList("office", "food"), new ArrayList<>(groups.keySet()));
+        assertEquals(Arrays.asList("pen", "ink"), cells(groups.get("office"), "name"));
+        assertTrue(products().groupBy("invalid").isEmpty());
+    }
+
+    @Test
+    public void shouldIndexRowsByColumnValue() {
+        Map<String, TableRow> bySku = products().index("sku");
+
+        assertEquals(3, bySku.size());
+        assertEquals("ink", bySku.get("b-2").getCell("name"));
+        assertEquals("pen", products().index("category").get("office").getCell("name"));
+    }
+
+    @Test
+    public void shouldSortRowsByColumnValue() {
+        Table products = products();
+
+        assertEquals(Arrays.asList("ink", "pen", "tea"), cells(products.sortedBy("name"), "name"));
+        assertEquals(Arrays.asList("tea", "pen", "ink"), cells(products.sortedBy("category"), "name"));
+        assertEquals(Arrays.asList("pen", "ink", "tea"), cells(products.sortedBy("invalid"), "name"));
+    }
+
+    @Test
+    public void shouldUpdateLookupsWhenARowIsAdded() {
+        Table products = products();
+        assertEquals(1, products.where("category", "food").size());
+        assertEquals("ink", products.sortedBy("name").get(0).getCell("name"));
+
+        products.addRow(Arrays.asList("c-4", "bread", "food"));
+
+        assertEquals(Arrays.asList("tea", "bread"), cells(products.where("category", "food"), "name"));
+        assertEquals("bread", products.sortedBy("name").get(0).getCell("name"));
+        assertEquals("bread", products.index("sku").get("c-4").getCell("name"));
+    }
+
+    @Test
+    public void shouldSortRowsByColumnValueWithComparator() {
+        Table products = products();
+        products.addRow(Arrays.asList("d-4", "Zinc", "office"));
+
+        assertEquals(Arrays.asList("Zinc", "ink", "pen", "tea"), cells(products.sortedBy("name"), "name"));
+        assertEquals(Arrays.asList("ink", "pen", "tea", "Zinc"), cells(products.sortedBy("name", String.CASE_INSENSITIVE_ORDER), "name"));
+        assertEquals(Arrays.asList("tea", "pen", "ink", "Zinc"), cells(products.sortedBy("name", Comparator.reverseOrder()), "name"));
+        assertEquals(Arrays.asList("pen", "ink", "tea", "Zinc"), cells(products.sortedBy("invalid", Comparator.reverseOrder()), "name"));
+    }
+
+    @Test
+    public void shouldUpdateLookupsWhenACellIsAdded() {
+        Table products = products();
+        assertEquals(1, products.where("category", "food").size());
+        assertEquals("ink", products.sortedBy("name").get(0).getCell("name"));
+
+        products.getTableRows().get(1).addCell("category", "food");
+        products.getTableRows().get(0).addCell("name", "cap");
+
+        assertEquals(Arrays.asList("ink", "tea"), cells(products.where("category", "food"), "name"));
+        assertEquals(Arrays.asList("cap"), cells(products.groupBy("category").get("office"), "name"));
+        assertEquals(Arrays.asList("cap", "ink", "tea"), cells(products.sortedBy("name"), "name"));
+        assertEquals("cap", products.index("sku").get("a-1").getCell("name"));
+    }
+
+    @Test
+    public void shouldReturnTheSameRowsAsTheTable() {
+        Table products = products();
+
+        assertTrue(products.getTableRows().get(1) == products.where("sku", "b-2").get(0));
+    }
+
+    @Test
+    public void testTableRowsOfATableFromGaugeCanBeChanged() {
+        Table products = products();
+
+        products.getTableRows().sort(Comparator.comparing((TableRow row) -> row.getCell("name")));
+        products.getTableRows().removeIf(row -> row.getCell("category").equals("food"));
+        products.getTableRows().add(products.getTableRows().get(0));
+
+        assertEquals(Arrays.asList("ink", "pen", "ink"), cells(products.getTableRows(), "name"));
+        assertEquals(Arrays.asList("ink", "pen", "ink"), products.getColumnValues("name"));
+        assertEquals(2, products.where("name", "ink").size());
+    }
+
+    @Test
+    public void testTableRowsKeepTheirChangesWhenARowIsAdded() {
+        Table products = products();
+        products.getTableRows().remove(0);
+
+        products.addRow(Arrays.asList("d-4", "cup", "kitchen"));
+
+        assertEquals(Arrays.asList("ink", "tea", "cup"), cells(products.getTableRows(), "name"));
+    }
+
+    @Test
+    public void testColumnValuesAreACopy() {
+        Table products = products();
+
+        List<String> names = products.getColumnValues("name");
+        names.sort(Comparator.reverseOrder());
+        names.add("cup");
+
+        assertEquals(Arrays.asList("tea", "pen", "ink", "cup"), names);
+        assertEquals(Arrays.asList("pen", "ink", "tea"), products.getColumnValues("name"));
+    }
+
+    @Test
+    public void testColumnValuesAndMappedRowsHaveAddedCells() {
+        Table products = products();
+        products.getTableRows().get(1).addCell("name", "ink pad");
+
+        assertEquals(Arrays.asList("pen", "ink pad", "tea"), products.getColumnValues(1));
+        assertEquals(Arrays.asList("pen", "ink pad", "tea"), products.stream(Product.class).map(product -> product.name).collect(Collectors.toList()));
+        assertEquals(1, products.where("name", "ink pad").size());
+    }
+
+    @Test
+    public void testRowsOfATableFromGaugeCanBeChanged() {
+        Table products = products();
+
+        products.getRows().get(0).set(1, "pencil");
+        products.getRows().add(Arrays.asList("d-4", "cup", "kitchen"));
+
+        assertEquals(4, products.getRows().size());
+        assertEquals("pencil", products.getRows().get(0).get(1));
+    }
+
+    @Test
+    public void testRowsCanBeReadFromSeveralThreads() throws Exception {
+        Spec.ProtoTable.Builder builder = Spec.ProtoTable.newBuilder().setHeaders(Spec.ProtoTableRow.newBuilder().addAllCells(Arrays.asList("id")));
+        for (int i = 0; i < 1000; i++) {
+            builder.addRows(Spec.ProtoTableRow.newBuilder().addCells(String.valueOf(i)));
+        }
+        Table ids = Table.from(builder.build());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<TableRow>>> reads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                reads.add(pool.submit(() -> new ArrayList<>(ids.getTableRows())));
+            }
+            for (Future<List<TableRow>> read : reads) {
+                List<TableRow> rows = read.get();
+                for (int i = 0; i < rows.size(); i++) {
+                    assertTrue(rows.get(i) == ids.getTableRows().get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Spec.ProtoTable protoTable(List<String> headers, List<String>... rows) {
+        Spec.ProtoTable.Builder builder = Spec.ProtoTable.newBuilder().setHeaders(Spec.ProtoTableRow.newBuilder().addAllCells(headers));
+        for (List<String> row : rows) {
+            builder.addRows(Spec.ProtoTableRow.newBuilder().addAllCells(row));
+        }
+        return builder.build();
+    }
+
+    private Table products() {
+        return Table.from(protoTable(Arrays.asList("sku", "name", "category"),
+                Arrays.asList("a-1", "pen", "office"),
+                Arrays.asList("b-2", "ink", "office"),
+                Arrays.asList("c-3", "tea", "food")));
+    }
+
+    private List<String> cells(List<TableRow> rows, String columnName) {
+        List<String> cells = new ArrayList<>();
+        for (TableRow row : rows) {
+            cells.add(row.getCell(columnName));
+        }
+        return cells;
+    }
+
+    public enum Status {
+        OPEN, SHIPPED
+    }
+
+    public static class Product {
+        private String sku;
+        private String name;
+        private String category;
+    }
+
+    public static class Shipment {
+        private String col1;
+        private List<String> parts;
+        private char grade;
+        private java.time.LocalDate shipped;
+    }
+
+    public static class Order {
+        private String item;
+        private double unitPrice;
+        private Integer quantity;
+        private boolean express;
+        private Status status;
+    }
+}
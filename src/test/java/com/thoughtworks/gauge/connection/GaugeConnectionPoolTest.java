@@ -0,0 +1,143 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.connection;
+
+import gauge.messages.Api;
+import gauge.messages.Spec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GaugeConnectionPoolTest {
+    private ServerSocket server;
+    private GaugeConnection connection;
+    private final Set<Socket> answeredSockets = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread gauge = new Thread(this::acceptConnections);
+        gauge.setDaemon(true);
+        gauge.start();
+        connection = new GaugeConnection(SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getLocalPort())).socket());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connection.close();
+        server.close();
+    }
+
+    @Test
+    public void shouldTakeTurnsBetweenTheConnectionAndNewOnes() throws IOException {
+        try (GaugeConnectionPool pool = new GaugeConnectionPool(connection, server.getLocalPort(), 3)) {
+            List<GaugeConnection> connections = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                connections.add(pool.next());
+            }
+
+            assertSame(connection, connections.get(0));
+            assertEquals(connections.subList(0, 3), connections.subList(3, 6));
+            assertEquals(3, new HashSet<>(connections).size());
+        }
+    }
+
+    @Test
+    public void shouldAnswerRequestsOverAllConnectionsAndCloseOnlyTheNewOnes() throws Exception {
+        List<GaugeConnection> connections = new ArrayList<>();
+        try (GaugeConnectionPool pool = new GaugeConnectionPool(connection, server.getLocalPort(), 2)) {
+            for (int i = 0; i < 10; i++) {
+                GaugeConnection next = pool.next();
+                connections.add(next);
+                assertEquals("step " + i, next.getStepValueAsync("step " + i, false).get(5, TimeUnit.SECONDS).getStepText());
+            }
+        }
+
+        assertEquals(2, answeredSockets.size());
+        assertTrue(isClosed(connections.get(1)));
+        assertEquals("step", connection.getStepValueAsync("step", false).get(5, TimeUnit.SECONDS).getStepText());
+    }
+
+    @Test
+    public void shouldMakeDoWithTheConnectionWhenGaugeIsNotListening() throws IOException {
+        // a bound socket that is not listening keeps its port from being reused while refusing connections
+        try (Socket notListening = new Socket()) {
+            notListening.bind(new InetSocketAddress("127.0.0.1", 0));
+            GaugeConnectionPool pool = new GaugeConnectionPool(connection, notListening.getLocalPort(), 3);
+
+            assertSame(connection, pool.next());
+            assertSame(connection, pool.next());
+            pool.close();
+        }
+    }
+
+    private static boolean isClosed(GaugeConnection connection) {
+        try {
+            connection.getStepValueAsync("step", false).get(5, TimeUnit.SECONDS);
+            return false;
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    private void acceptConnections() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread answer = new Thread(() -> answer(socket));
+                answer.setDaemon(true);
+                answer.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void answer(Socket socket) {
+        try {
+            MessageChannel channel = MessageChannel.of(socket);
+            while (true) {
+                Api.APIMessage request = channel.read(Api.APIMessage.parser());
+                answeredSockets.add(socket);
+                String stepText = request.getStepValueRequest().getStepText();
+                channel.write(Api.APIMessage.newBuilder()
+                        .setMessageType(Api.APIMessage.APIMessageType.GetStepValueResponse)
+                        .setMessageId(request.getMessageId())
+                        .setStepValueResponse(Api.GetStepValueResponse.newBuilder()
+                                .setStepValue(Spec.ProtoStepValue.newBuilder().setStepValue(stepText).setParameterizedStepValue(stepText)))
+                        .build());
+            }
+        } catch (IOException e) {
+            // the runner closed the connection
+        }
+    }
+}
@@ -0,0 +1,134 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.connection;
+
+import com.thoughtworks.gauge.StepValue;
+import gauge.messages.Api;
+import gauge.messages.Spec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GaugeConnectionTest {
+    private static final int REQUESTS = 50;
+
+    private ServerSocket server;
+    private GaugeConnection connection;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Socket socket = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.getLocalPort())).socket();
+        connection = new GaugeConnection(socket);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connection.close();
+        server.close();
+    }
+
+    @Test
+    public void shouldMatchResponsesToRequestsWhenAnsweredOutOfOrder() throws Exception {
+        Set<Long> messageIds = new HashSet<>();
+        Thread gauge = startGauge(REQUESTS, requests -> {
+            for (Api.APIMessage request : requests) {
+                messageIds.add(request.getMessageId());
+            }
+            List<Api.APIMessage> responses = new ArrayList<>();
+            for (int i = requests.size() - 1; i >= 0; i--) {
+                responses.add(stepValueResponse(requests.get(i)));
+            }
+            return responses;
+        });
+
+        List<CompletableFuture<StepValue>> stepValues = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            stepValues.add(connection.getStepValueAsync("step " + i, false));
+        }
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals("step " + i, stepValues.get(i).get(5, TimeUnit.SECONDS).getStepText());
+        }
+        gauge.join();
+        assertEquals(REQUESTS, messageIds.size());
+    }
+
+    @Test
+    public void shouldFailPendingRequestsWhenTheConnectionCloses() throws Exception {
+        Thread gauge = startGauge(1, requests -> new ArrayList<>());
+
+        CompletableFuture<StepValue> stepValue = connection.getStepValueAsync("step", false);
+        gauge.join();
+
+        try {
+            stepValue.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+            return;
+        }
+        throw new AssertionError("Expected the pending request to fail");
+    }
+
+    private Thread startGauge(int requestCount, Responder responder) {
+        Thread gauge = new Thread(() -> {
+            try (Socket socket = server.accept()) {
+                MessageChannel channel = MessageChannel.of(socket);
+                List<Api.APIMessage> requests = new ArrayList<>();
+                while (requests.size() < requestCount) {
+                    requests.add(channel.read(Api.APIMessage.parser()));
+                }
+                for (Api.APIMessage response : responder.respond(requests)) {
+                    channel.write(response);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        gauge.start();
+        return gauge;
+    }
+
+    private Api.APIMessage stepValueResponse(Api.APIMessage request) {
+        String stepText = request.getStepValueRequest().getStepText();
+        return Api.APIMessage.newBuilder()
+                .setMessageType(Api.APIMessage.APIMessageType.GetStepValueResponse)
+                .setMessageId(request.getMessageId())
+                .setStepValueResponse(Api.GetStepValueResponse.newBuilder()
+                        .setStepValue(Spec.ProtoStepValue.newBuilder().setStepValue(stepText).setParameterizedStepValue(stepText)))
+                .build();
+    }
+
+    private interface Responder {
+        List<Api.APIMessage> respond(List<Api.APIMessage> requests);
+    }
+}
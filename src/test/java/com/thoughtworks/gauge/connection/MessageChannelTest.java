@@ -0,0 +1,103 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.connection;
+
+import com.google.protobuf.ByteString;
+import gauge.messages.Messages;
+import gauge.messages.Spec;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MessageChannelTest {
+
+    @Test
+    public void shouldReadBackWrittenMessagesInOrder() throws IOException {
+        byte[] screenshot = new byte[200 * 1024];
+        Arrays.fill(screenshot, (byte) 7);
+        Messages.Message small = executionStatus(1, new byte[0]);
+        Messages.Message large = executionStatus(2, screenshot);
+
+        MessageChannel reader = readerFor(written(small, large, small), Integer.MAX_VALUE);
+
+        assertEquals(small, reader.read(Messages.Message.parser()));
+        Messages.Message received = reader.read(Messages.Message.parser());
+        assertEquals(2, received.getMessageId());
+        assertArrayEquals(screenshot, received.getExecutionStatusResponse().getExecutionResult().getScreenShot().toByteArray());
+        assertEquals(small, reader.read(Messages.Message.parser()));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectMessagesLargerThanTheMaximumSize() throws IOException {
+        Messages.Message message = executionStatus(1, new byte[1024]);
+
+        readerFor(written(message), 100).read(Messages.Message.parser());
+    }
+
+    @Test(expected = EOFException.class)
+    public void shouldFailWithEOFWhenTheMessageIsTruncated() throws IOException {
+        byte[] bytes = written(executionStatus(1, new byte[1024]));
+
+        readerFor(Arrays.copyOf(bytes, bytes.length - 10), Integer.MAX_VALUE).read(Messages.Message.parser());
+    }
+
+    @Test
+    public void shouldAddTheMessageIdToAPreSerializedMessage() throws IOException {
+        Messages.Message withoutId = executionStatus(0, new byte[0]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageChannel writer = new MessageChannel(null, Channels.newChannel(out), Integer.MAX_VALUE);
+
+        writer.write(Messages.Message.MESSAGEID_FIELD_NUMBER, 42L, withoutId.toByteArray());
+        writer.write(Messages.Message.MESSAGEID_FIELD_NUMBER, 0L, withoutId.toByteArray());
+        writer.write(Messages.Message.MESSAGEID_FIELD_NUMBER, -1L, withoutId.toByteArray());
+
+        MessageChannel reader = readerFor(out.toByteArray(), Integer.MAX_VALUE);
+        assertEquals(withoutId.toBuilder().setMessageId(42L).build(), reader.read(Messages.Message.parser()));
+        assertEquals(withoutId, reader.read(Messages.Message.parser()));
+        assertEquals(withoutId.toBuilder().setMessageId(-1L).build(), reader.read(Messages.Message.parser()));
+    }
+
+    private MessageChannel readerFor(byte[] bytes, int maxMessageSize) {
+        return new MessageChannel(Channels.newChannel(new ByteArrayInputStream(bytes)), null, maxMessageSize);
+    }
+
+    private byte[] written(Messages.Message... messages) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessageChannel writer = new MessageChannel(null, Channels.newChannel(out), Integer.MAX_VALUE);
+        for (Messages.Message message : messages) {
+            writer.write(message);
+        }
+        return out.toByteArray();
+    }
+
+    private Messages.Message executionStatus(long messageId, byte[] screenshot) {
+        Spec.ProtoExecutionResult result = Spec.ProtoExecutionResult.newBuilder().setFailed(screenshot.length > 0)
+                .setScreenShot(ByteString.copyFrom(screenshot)).build();
+        return Messages.Message.newBuilder()
+                .setMessageId(messageId)
+                .setMessageType(Messages.Message.MessageType.ExecutionStatusResponse)
+                .setExecutionStatusResponse(Messages.ExecutionStatusResponse.newBuilder().setExecutionResult(result))
+                .build();
+    }
+}
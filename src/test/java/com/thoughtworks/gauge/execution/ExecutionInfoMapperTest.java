@@ -27,6 +27,8 @@ import java.util.List;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class ExecutionInfoMapperTest {
@@ -142,4 +144,32 @@ public class ExecutionInfoMapperTest {
         assertEquals(ERROR_MESSAGE, currentStep.getErrorMessage());
         assertEquals(ACTUAL_STEP_TEXT, currentStep.getText());
     }
+
+    @Test
+    public void testSpecAndScenarioAreSharedByMessagesOfTheSameScenario() {
+        Messages.SpecInfo specInfo = Messages.SpecInfo.newBuilder().setName(SPEC_NAME).setFileName(FILE_NAME).addTags(SPEC_TAG_1).build();
+        Messages.ScenarioInfo scenarioInfo = Messages.ScenarioInfo.newBuilder().setName(SCENARIO_NAME).addTags(SCENARIO_TAG_1).build();
+        Messages.ExecutionInfo firstStep = Messages.ExecutionInfo.newBuilder().setCurrentSpec(specInfo).setCurrentScenario(scenarioInfo).build();
+        Messages.ExecutionInfo secondStep = Messages.ExecutionInfo.newBuilder()
+                .setCurrentSpec(specInfo.toBuilder().build()).setCurrentScenario(scenarioInfo.toBuilder().build()).build();
+        Messages.ExecutionInfo failedStep = Messages.ExecutionInfo.newBuilder()
+                .setCurrentSpec(specInfo).setCurrentScenario(scenarioInfo.toBuilder().setIsFailed(true)).build();
+
+        ExecutionContext first = new ExecutionInfoMapper().executionInfoFrom(firstStep);
+        ExecutionContext second = new ExecutionInfoMapper().executionInfoFrom(secondStep);
+        ExecutionContext failed = new ExecutionInfoMapper().executionInfoFrom(failedStep);
+
+        assertSame(first.getCurrentSpecification(), second.getCurrentSpecification());
+        assertSame(first.getCurrentScenario(), second.getCurrentScenario());
+        assertNotSame(first.getCurrentScenario(), failed.getCurrentScenario());
+        assertTrue(failed.getCurrentScenario().getIsFailing());
+        assertSame(first.getCurrentScenario().getTags(), failed.getCurrentScenario().getTags());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testTagsAreReadOnly() {
+        Messages.ScenarioInfo scenarioInfo = Messages.ScenarioInfo.newBuilder().setName(SCENARIO_NAME).addTags(SCENARIO_TAG_2).build();
+
+        new ExecutionInfoMapper().scenarioFrom(scenarioInfo).getTags().add(SCENARIO_TAG_1);
+    }
 }
@@ -18,25 +18,55 @@ package com.thoughtworks.gauge.execution;
 import com.thoughtworks.gauge.BeforeScenario;
 import com.thoughtworks.gauge.ClassInstanceManager;
 import com.thoughtworks.gauge.ContinueOnFailure;
+import com.thoughtworks.gauge.ExecutionContext;
 import com.thoughtworks.gauge.Operator;
 import com.thoughtworks.gauge.hook.Hook;
 import gauge.messages.Spec;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class HooksExecutorTest extends TestCase {
 
     public void testHookExecutor() throws Exception {
         final Hook hook1 = new Hook(HooksExecutorTest.TestHook.class.getMethod("foo"), new String[0], Operator.AND);
-        HookExecutionStage hookExecutionStage = new HookExecutionStage(new ArrayList<Hook>() {{
+        HooksExecutor hooksExecutor = new HooksExecutor(new ArrayList<Hook>() {{
             add(hook1);
-        }}, new ClassInstanceManager());
-        Spec.ProtoExecutionResult prevResult = Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(0).build();
-        Spec.ProtoExecutionResult result = hookExecutionStage.execute(prevResult);
+        }}, new ExecutionContext(), new ClassInstanceManager());
+        Spec.ProtoExecutionResult result = hooksExecutor.execute();
         assertFalse(result.getRecoverableError());
     }
 
+    public void testHooksMergeIntoResultAndStopAtFirstFailure() throws Exception {
+        FailingHooks.ran = 0;
+        Hook failing = new Hook(FailingHooks.class.getMethod("fail"), new String[0], Operator.AND);
+        Hook notRun = new Hook(FailingHooks.class.getMethod("pass"), new String[0], Operator.AND);
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(5);
+
+        new HooksExecutor(Arrays.asList(failing, notRun), new ExecutionContext(), new ClassInstanceManager()).execute(result);
+
+        assertTrue(result.getFailed());
+        assertEquals("java.lang.RuntimeException: hook failed", result.getErrorMessage());
+        assertFalse(result.getRecoverableError());
+        assertTrue(result.getExecutionTime() >= 5);
+        assertEquals(1, FailingHooks.ran);
+    }
+
+    public static class FailingHooks {
+        private static int ran;
+
+        @ContinueOnFailure
+        public void fail() {
+            ran++;
+            throw new RuntimeException("hook failed");
+        }
+
+        public void pass() {
+            ran++;
+        }
+    }
+
     private class TestHook {
         @ContinueOnFailure
         @BeforeScenario
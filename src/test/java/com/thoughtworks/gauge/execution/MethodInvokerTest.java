@@ -0,0 +1,138 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import com.thoughtworks.gauge.ClassInstanceManager;
+import com.thoughtworks.gauge.ContinueOnFailure;
+import com.thoughtworks.gauge.ExecutionContext;
+import gauge.messages.Spec;
+import junit.framework.TestCase;
+
+import java.lang.reflect.InvocationTargetException;
+
+public class MethodInvokerTest extends TestCase {
+
+    public void testInvokesInstanceMethodWithConvertedArguments() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(Steps.class.getMethod("join", int.class, String.class));
+
+        assertEquals("3 apples", invoker.invoke(new Steps(), new Object[]{3, "apples"}));
+    }
+
+    public void testInvokesStaticMethod() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(Steps.class.getMethod("twice", long.class));
+
+        assertEquals(8L, invoker.invoke(null, new Object[]{4L}));
+    }
+
+    public void testInvokersAreCreatedOncePerMethod() throws Exception {
+        assertSame(MethodInvoker.of(Steps.class.getMethod("fail")), MethodInvoker.of(Steps.class.getMethod("fail")));
+    }
+
+    public void testWrapsExceptionsThrownByTheMethod() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(Steps.class.getMethod("fail"));
+        try {
+            invoker.invoke(new Steps(), new Object[0]);
+            fail("expected the exception of the step");
+        } catch (InvocationTargetException e) {
+            assertEquals("java.lang.RuntimeException: failed!", e.getCause().toString());
+        }
+    }
+
+    public void testReportsBadArgumentsLikeReflection() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(Steps.class.getMethod("join", int.class, String.class));
+
+        assertIllegalArgument(invoker, new Object[]{"3", "apples"});
+        assertIllegalArgument(invoker, new Object[]{null, "apples"});
+        assertIllegalArgument(invoker, new Object[]{3});
+    }
+
+    public void testRejectsMissingInstanceLikeReflection() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(Steps.class.getMethod("join", int.class, String.class));
+        try {
+            invoker.invoke(null, new Object[]{3, "apples"});
+            fail("expected the missing instance to be rejected");
+        } catch (NullPointerException e) {
+            // as Method.invoke does
+        }
+    }
+
+    public void testKnowsWhetherHookTakesExecutionContext() throws Exception {
+        assertTrue(MethodInvoker.of(Steps.class.getMethod("hook", ExecutionContext.class)).takesExecutionContext());
+        assertFalse(MethodInvoker.of(Steps.class.getMethod("fail")).takesExecutionContext());
+    }
+
+    public void testFailureStackTraceStopsAtTheStep() throws Exception {
+        Spec.ProtoExecutionResult result = new MethodExecutor(new ClassInstanceManager()).execute(Steps.class.getMethod("fail"));
+
+        assertTrue(result.getFailed());
+        assertTrue(result.getRecoverableError());
+        assertTrue(result.getStackTrace().startsWith(Steps.class.getName() + ".fail("));
+        assertFalse(result.getStackTrace().contains(MethodExecutor.class.getName()));
+    }
+
+    public void testFailureStackTraceHasNoInvocationFrames() throws Exception {
+        MethodExecutor executor = new MethodExecutor(new ClassInstanceManager());
+        for (int i = 0; i < 20; i++) {
+            String stackTrace = executor.execute(Steps.class.getMethod("fail")).getStackTrace();
+
+            assertEquals(1, stackTrace.split("\n").length);
+            assertTrue(stackTrace.startsWith(Steps.class.getName() + ".fail("));
+        }
+    }
+
+    public void testFallsBackToReflectionForMethodsOfNonPublicClasses() throws Exception {
+        MethodInvoker invoker = MethodInvoker.of(HiddenSteps.class.getMethod("fail"));
+        try {
+            invoker.invoke(new HiddenSteps(), new Object[0]);
+            fail("expected the exception of the step");
+        } catch (InvocationTargetException e) {
+            assertEquals("java.lang.RuntimeException: failed!", e.getCause().toString());
+        }
+    }
+
+    private void assertIllegalArgument(MethodInvoker invoker, Object[] args) throws Exception {
+        try {
+            invoker.invoke(new Steps(), args);
+            fail("expected the arguments to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertNull(e.getCause());
+        }
+    }
+
+    public static class Steps {
+        public String join(int count, String what) {
+            return count + " " + what;
+        }
+
+        public static long twice(long value) {
+            return value * 2;
+        }
+
+        @ContinueOnFailure
+        public void fail() {
+            throw new RuntimeException("failed!");
+        }
+
+        public void hook(ExecutionContext context) {
+        }
+    }
+
+    static class HiddenSteps {
+        public void fail() {
+            throw new RuntimeException("failed!");
+        }
+    }
+}
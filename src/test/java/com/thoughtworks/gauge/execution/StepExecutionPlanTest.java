@@ -0,0 +1,325 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import com.google.protobuf.ByteString;
+import com.thoughtworks.gauge.AfterClassSteps;
+import com.thoughtworks.gauge.BeforeClassSteps;
+import com.thoughtworks.gauge.ClassInstanceManager;
+import com.thoughtworks.gauge.ContinueOnFailure;
+import com.thoughtworks.gauge.StepValue;
+import com.thoughtworks.gauge.Table;
+import com.thoughtworks.gauge.execution.parameters.ParametersExtractor;
+import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParsingChain;
+import com.thoughtworks.gauge.execution.parameters.parsers.types.EnumParameterParser;
+import com.thoughtworks.gauge.registry.HooksRegistry;
+import com.thoughtworks.gauge.registry.StepRegistry;
+import com.thoughtworks.gauge.test.AnEnum;
+import gauge.messages.Messages;
+import gauge.messages.Spec;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class StepExecutionPlanTest extends TestCase {
+    private static final List<Object> CALLS = new ArrayList<>();
+
+    protected void setUp() throws Exception {
+        CALLS.clear();
+        HooksRegistry.addBeforeClassStepsHooks(Collections.singleton(Steps.class.getMethod("before")));
+        HooksRegistry.addAfterClassStepsHooks(Collections.singleton(Steps.class.getMethod("after")));
+        HooksRegistry.addBeforeClassStepsHooks(Collections.singleton(FailingHookSteps.class.getMethod("before")));
+        HooksRegistry.addAfterClassStepsHooks(Collections.singleton(FailingHookSteps.class.getMethod("after")));
+    }
+
+    public void testExecutesStepWithConvertedParameters() throws Exception {
+        StepExecutionPlan plan = new StepExecutionPlan(Steps.class.getMethod("add", int.class, String.class));
+        Spec.Parameter number = Spec.Parameter.newBuilder().setValue("2").setParameterType(Spec.Parameter.ParameterType.Static).build();
+        Spec.Parameter text = Spec.Parameter.newBuilder().setValue("apples").setParameterType(Spec.Parameter.ParameterType.Static).build();
+        Messages.ExecuteStepRequest request = Messages.ExecuteStepRequest.newBuilder().setParsedStepText("add {} {}").setActualStepText("add 2 apples")
+                .addParameters(number).addParameters(text).build();
+
+        Spec.ProtoExecutionResult result = execute(plan, request);
+
+        assertFalse(result.getFailed());
+        assertEquals(Arrays.asList("before", "2 apples", "after"), CALLS);
+    }
+
+    public void testExecutesStepWithoutParameters() throws Exception {
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("pass")), request("pass"));
+
+        assertFalse(result.getFailed());
+        assertEquals(Arrays.asList("before", "pass", "after"), CALLS);
+    }
+
+    public void testPassesSpecialTableAsObject() throws Exception {
+        Spec.Parameter table = Spec.Parameter.newBuilder().setValue("table { headers {cells: \"Id\"}rows {cells: \"1\"}}")
+                .setParameterType(Spec.Parameter.ParameterType.Special_Table).build();
+
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("table", Object.class)), request("table {}", table));
+
+        assertFalse(result.getFailed());
+        assertTrue(CALLS.get(1) instanceof Table);
+    }
+
+    public void testFailsWithoutExecutingStepOnInvalidParameterConversion() throws Exception {
+        Spec.Parameter number = Spec.Parameter.newBuilder().setValue("a").setParameterType(Spec.Parameter.ParameterType.Static).build();
+        Spec.Parameter text = Spec.Parameter.newBuilder().setValue("foo").setParameterType(Spec.Parameter.ParameterType.Static).build();
+
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("add", int.class, String.class)),
+                request("add {} {}", number, text));
+
+        assertTrue(result.getFailed());
+        assertEquals("Failed to convert argument from type String to type int. For input string: \"a\"", result.getErrorMessage());
+        assertEquals(Arrays.asList("before", "after"), CALLS);
+    }
+
+    public void testMapsTableToListOfRows() throws Exception {
+        Spec.ProtoTable protoTable = Spec.ProtoTable.newBuilder().setHeaders(Spec.ProtoTableRow.newBuilder().addCells("name"))
+                .addRows(Spec.ProtoTableRow.newBuilder().addCells("apples")).addRows(Spec.ProtoTableRow.newBuilder().addCells("pears")).build();
+        Spec.Parameter table = Spec.Parameter.newBuilder().setTable(protoTable).setParameterType(Spec.Parameter.ParameterType.Table).build();
+
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("fruits", List.class)), request("fruits {}", table));
+
+        assertFalse(result.getFailed());
+        assertEquals(Arrays.asList("before", "apples", "pears", "after"), CALLS);
+    }
+
+    public void testExecutesStepWithEnumParameter() throws Exception {
+        Spec.Parameter value = Spec.Parameter.newBuilder().setValue(AnEnum.FIRST.name()).setParameterType(Spec.Parameter.ParameterType.Static).build();
+
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("enumValue", AnEnum.class)), request("enum {}", value));
+
+        assertFalse(result.getFailed());
+        assertEquals(Arrays.asList("before", AnEnum.FIRST, "after"), CALLS);
+    }
+
+    public void testFailsOnWrongEnumValue() throws Exception {
+        Spec.Parameter value = Spec.Parameter.newBuilder().setValue("nonExistingValue").setParameterType(Spec.Parameter.ParameterType.Static).build();
+
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("enumValue", AnEnum.class)), request("enum {}", value));
+
+        assertTrue(result.getFailed());
+        assertEquals(String.format(EnumParameterParser.ENUM_VALUE_NOT_FOUND_MESSAGE, "nonExistingValue", AnEnum.class.getSimpleName()),
+                result.getErrorMessage());
+    }
+
+    public void testFailsOnArgumentLengthMismatch() throws Exception {
+        StepExecutionPlan plan = new StepExecutionPlan(Steps.class.getMethod("add", int.class, String.class));
+        Messages.ExecuteStepRequest request = Messages.ExecuteStepRequest.newBuilder().setParsedStepText("add").setActualStepText("add").build();
+
+        Spec.ProtoExecutionResult result = execute(plan, request);
+
+        assertTrue(result.getFailed());
+        assertEquals("Argument length mismatch for: add. Actual Count: [2], Expected Count: [0]", result.getErrorMessage());
+        assertEquals(Arrays.asList("before", "after"), CALLS);
+    }
+
+    public void testUsesContinueOnFailureOfTheStep() throws Exception {
+        StepExecutionPlan plan = new StepExecutionPlan(Steps.class.getMethod("fail"));
+        Messages.ExecuteStepRequest request = Messages.ExecuteStepRequest.newBuilder().setParsedStepText("fail").setActualStepText("fail").build();
+
+        Spec.ProtoExecutionResult result = execute(plan, request);
+
+        assertTrue(result.getFailed());
+        assertTrue(result.getRecoverableError());
+        assertEquals("java.lang.RuntimeException: recoverable!", result.getErrorMessage());
+    }
+
+    public void testContinuesOnAssertionFailureByDefault() throws Exception {
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("assertionFailure")), request("assertion failure"));
+
+        assertTrue(result.getFailed());
+        assertTrue(result.getRecoverableError());
+        assertEquals("java.lang.AssertionError: assertion failed", result.getErrorMessage());
+    }
+
+    public void testDoesNotContinueOnFailureNotListed() throws Exception {
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("notListed")), request("not listed"));
+
+        assertTrue(result.getFailed());
+        assertFalse(result.getRecoverableError());
+        assertEquals("java.lang.RuntimeException: not recoverable!", result.getErrorMessage());
+    }
+
+    public void testDoesNotContinueOnFailureWithoutContinueOnFailure() throws Exception {
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(Steps.class.getMethod("noContinueOnFailure")), request("no cof"));
+
+        assertTrue(result.getFailed());
+        assertFalse(result.getRecoverableError());
+        assertEquals("java.lang.RuntimeException: my exception", result.getErrorMessage());
+    }
+
+    public void testSkipsStepButRunsAfterHooksWhenBeforeHookFails() throws Exception {
+        Spec.ProtoExecutionResult result = execute(new StepExecutionPlan(FailingHookSteps.class.getMethod("step")), request("step"));
+
+        assertTrue(result.getFailed());
+        assertEquals("java.lang.RuntimeException: before failed", result.getErrorMessage());
+        assertEquals(Collections.singletonList("failing after"), CALLS);
+    }
+
+    public void testMergesPassingResults() {
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(1000);
+        StepExecutionPlan.merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(1100).build());
+
+        assertFalse(result.getFailed());
+        assertEquals(2100, result.getExecutionTime());
+    }
+
+    public void testMergeKeepsPreviousFailure() {
+        ByteString screenShot = ByteString.copyFrom(new byte[]{1});
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(true).setExecutionTime(100)
+                .setRecoverableError(false).setErrorMessage("previous failed").setStackTrace("previous stacktrace").setFailureScreenshot(screenShot);
+        StepExecutionPlan.merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(1100).build());
+
+        assertTrue(result.getFailed());
+        assertEquals(1200, result.getExecutionTime());
+        assertEquals("previous failed", result.getErrorMessage());
+        assertEquals("previous stacktrace", result.getStackTrace());
+        assertFalse(result.getRecoverableError());
+        assertEquals(screenShot, result.getFailureScreenshot());
+    }
+
+    public void testMergeTakesCurrentFailure() {
+        ByteString screenShot = ByteString.copyFromUtf8("hello");
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(1001);
+        StepExecutionPlan.merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(true).setExecutionTime(1002)
+                .setRecoverableError(true).setErrorMessage("current failed").setStackTrace("current stacktrace").setFailureScreenshot(screenShot).build());
+
+        assertTrue(result.getFailed());
+        assertEquals(2003, result.getExecutionTime());
+        assertEquals("current failed", result.getErrorMessage());
+        assertEquals("current stacktrace", result.getStackTrace());
+        assertTrue(result.getRecoverableError());
+        assertEquals(screenShot, result.getFailureScreenshot());
+    }
+
+    public void testMergeKeepsFirstFailureAndLosesRecoverabilityOnUnrecoverableFailure() {
+        ByteString screenShot = ByteString.copyFrom(new byte[]{2});
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        StepExecutionPlan.merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(false).setExecutionTime(10).build());
+        StepExecutionPlan.merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(true).setExecutionTime(20).setRecoverableError(true)
+                .setErrorMessage("first failed").setStackTrace("first stacktrace").setFailureScreenshot(screenShot).build());
+        StepExecutionPlan.merge(result, Spec.ProtoExecutionResult.newBuilder().setFailed(true).setExecutionTime(30).setRecoverableError(false)
+                .setErrorMessage("second failed").setStackTrace("second stacktrace").setFailureScreenshot(ByteString.copyFromUtf8("hello")).build());
+
+        assertTrue(result.getFailed());
+        assertEquals(60, result.getExecutionTime());
+        assertEquals("first failed", result.getErrorMessage());
+        assertEquals("first stacktrace", result.getStackTrace());
+        assertFalse(result.getRecoverableError());
+        assertEquals(screenShot, result.getFailureScreenshot());
+    }
+
+    public void testRegistryKeepsPlanUntilItChanges() throws Exception {
+        StepRegistry registry = new StepRegistry();
+        registry.addStepImplementation(new StepValue("fail", "fail", new ArrayList<>()), Steps.class.getMethod("fail"));
+
+        StepExecutionPlan plan = registry.getExecutionPlan("fail");
+        assertSame(plan, registry.getExecutionPlan("fail"));
+        assertEquals(Steps.class.getMethod("fail"), plan.getMethod());
+        assertNull(registry.getExecutionPlan("add {} {}"));
+
+        registry.addStepImplementation(new StepValue("add {} {}", "add <a> <b>", new ArrayList<>()), Steps.class.getMethod("add", int.class, String.class));
+        assertNotSame(plan, registry.getExecutionPlan("fail"));
+        assertNotNull(registry.getExecutionPlan("add {} {}"));
+    }
+
+    private Messages.ExecuteStepRequest request(String stepText, Spec.Parameter... parameters) {
+        return Messages.ExecuteStepRequest.newBuilder().setParsedStepText(stepText).setActualStepText(stepText)
+                .addAllParameters(Arrays.asList(parameters)).build();
+    }
+
+    private Spec.ProtoExecutionResult execute(StepExecutionPlan plan, Messages.ExecuteStepRequest request) {
+        return plan.execute(request, new ClassInstanceManager(), new ParametersExtractor(new ParameterParsingChain()));
+    }
+
+    public static class Steps {
+        @BeforeClassSteps
+        public void before() {
+            CALLS.add("before");
+        }
+
+        @AfterClassSteps
+        public void after() {
+            CALLS.add("after");
+        }
+
+        public void add(int count, String what) {
+            CALLS.add(count + " " + what);
+        }
+
+        public void pass() {
+            CALLS.add("pass");
+        }
+
+        public void table(Object table) {
+            CALLS.add(table);
+        }
+
+        public void fruits(List<Fruit> fruits) {
+            for (Fruit fruit : fruits) {
+                CALLS.add(fruit.name);
+            }
+        }
+
+        public void enumValue(AnEnum value) {
+            CALLS.add(value);
+        }
+
+        @ContinueOnFailure(RuntimeException.class)
+        public void fail() {
+            throw new RuntimeException("recoverable!");
+        }
+
+        @ContinueOnFailure
+        public void assertionFailure() {
+            throw new AssertionError("assertion failed");
+        }
+
+        @ContinueOnFailure(AssertionError.class)
+        public void notListed() {
+            throw new RuntimeException("not recoverable!");
+        }
+
+        public void noContinueOnFailure() {
+            throw new RuntimeException("my exception");
+        }
+    }
+
+    public static class Fruit {
+        private String name;
+    }
+
+    public static class FailingHookSteps {
+        @BeforeClassSteps
+        public void before() {
+            throw new RuntimeException("before failed");
+        }
+
+        @AfterClassSteps
+        public void after() {
+            CALLS.add("failing after");
+        }
+
+        public void step() {
+            CALLS.add("step");
+        }
+    }
+}
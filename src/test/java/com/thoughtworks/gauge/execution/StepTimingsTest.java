@@ -0,0 +1,118 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.execution;
+
+import com.thoughtworks.gauge.ClassInstanceManager;
+import com.thoughtworks.gauge.execution.parameters.ParametersExtractor;
+import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParsingChain;
+import gauge.messages.Messages;
+import gauge.messages.Spec;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StepTimingsTest extends TestCase {
+    private final List<String> reported = new ArrayList<>();
+
+    protected void tearDown() throws Exception {
+        StepTimings.setListener(null);
+    }
+
+    public void testTimesNothingWithoutListener() throws Exception {
+        StepTimings timings = StepTimings.begin("pass");
+
+        assertEquals(0, timings.start());
+        assertEquals(0, timings.stop(StepTimings.Phase.METHOD, 0));
+        timings.end();
+        assertEquals(0, timings.getTotalNanos());
+        assertNull(timings.getStepText());
+    }
+
+    public void testReportsPhasesOfPassingStep() throws Exception {
+        StepTimings.setListener(timings -> {
+            assertEquals("sleep", timings.getStepText());
+            assertTrue(timings.getNanos(StepTimings.Phase.METHOD) >= Steps.SLEEP_NANOS);
+            assertEquals(0, timings.getNanos(StepTimings.Phase.FAILURE_HANDLING));
+            assertEquals(0, timings.getNanos(StepTimings.Phase.SCREENSHOT));
+            assertTrue(timings.getTotalNanos() >= timings.getNanos(StepTimings.Phase.METHOD) + timings.getNanos(StepTimings.Phase.INSTANTIATION));
+            reported.add(timings.getStepText());
+        });
+
+        Spec.ProtoExecutionResult result = execute("sleep", Steps.class.getMethod("sleep"));
+
+        assertFalse(result.getFailed());
+        assertEquals(1, reported.size());
+    }
+
+    public void testReportsFailureHandlingOfFailingStep() throws Exception {
+        StepTimings.setListener(timings -> {
+            assertTrue(timings.getNanos(StepTimings.Phase.METHOD) > 0);
+            assertTrue(timings.getNanos(StepTimings.Phase.FAILURE_HANDLING) > 0);
+            reported.add(timings.getStepText());
+        });
+
+        Spec.ProtoExecutionResult result = execute("fail", Steps.class.getMethod("fail"));
+
+        assertTrue(result.getFailed());
+        assertEquals(1, reported.size());
+    }
+
+    public void testReusesTimingsOfThreadAndResetsThem() throws Exception {
+        StepTimings.setListener(timings -> reported.add(timings.getStepText()));
+
+        StepTimings first = StepTimings.begin("first");
+        first.stop(StepTimings.Phase.LOOKUP, first.start() - 1);
+        first.end();
+        StepTimings second = StepTimings.begin("second");
+
+        assertSame(first, second);
+        assertEquals(0, second.getNanos(StepTimings.Phase.LOOKUP));
+        assertEquals("second", second.getStepText());
+    }
+
+    public void testFailingListenerDoesNotFailStep() throws Exception {
+        StepTimings.setListener(timings -> {
+            throw new IllegalStateException("listener failed");
+        });
+
+        Spec.ProtoExecutionResult result = execute("sleep", Steps.class.getMethod("sleep"));
+
+        assertFalse(result.getFailed());
+    }
+
+    private Spec.ProtoExecutionResult execute(String stepText, Method method) {
+        Messages.ExecuteStepRequest request = Messages.ExecuteStepRequest.newBuilder().setParsedStepText(stepText).setActualStepText(stepText).build();
+        Spec.ProtoExecutionResult.Builder result = Spec.ProtoExecutionResult.newBuilder().setFailed(false);
+        StepTimings timings = StepTimings.begin(stepText);
+        new StepExecutionPlan(method).execute(request, new ClassInstanceManager(), new ParametersExtractor(new ParameterParsingChain()), result, timings);
+        timings.end();
+        return result.build();
+    }
+
+    public static class Steps {
+        static final long SLEEP_NANOS = 1_000_000;
+
+        public void sleep() throws InterruptedException {
+            Thread.sleep(1);
+        }
+
+        public void fail() {
+            throw new RuntimeException("failed!");
+        }
+    }
+}
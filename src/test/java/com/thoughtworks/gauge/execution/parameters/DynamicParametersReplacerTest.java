@@ -51,6 +51,24 @@ public class DynamicParametersReplacerTest {
                 .isEqualTo("User \"Elon\" makes login from \"Web\"");
     }
 
+    @Test
+    public void shouldNotReplacePlaceholdersInsideReplacedValues() {
+        assertThat(replacePlaceholders("User <username> makes login from <clientType>", asList(dynamicParameter("<admin>"), dynamicParameter("Web"))))
+                .isEqualTo("User \"<admin>\" makes login from \"Web\"");
+    }
+
+    @Test
+    public void shouldNotReplacePlaceholdersSpanningLines() {
+        assertThat(replacePlaceholders("User <user\nname> makes login from <clientType>", singletonList(dynamicParameter("Web"))))
+                .isEqualTo("User <user\nname> makes login from \"Web\"");
+    }
+
+    @Test
+    public void shouldKeepTextWhenThereAreMoreParametersThanPlaceholders() {
+        assertThat(replacePlaceholders("User <username> makes login", asList(dynamicParameter("Elon"), dynamicParameter("Web"))))
+                .isEqualTo("User \"Elon\" makes login");
+    }
+
     @Test
     public void shouldGetEmptyStepTextWhenStepIsNotInitialized() {
         Messages.StepInfo stepInfo = Messages.StepInfo.newBuilder().build();
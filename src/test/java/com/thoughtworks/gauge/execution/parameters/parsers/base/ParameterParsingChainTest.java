@@ -0,0 +1,110 @@
+package com.thoughtworks.gauge.execution.parameters.parsers.base;
+
+import com.thoughtworks.gauge.execution.parameters.parsers.types.EnumParameterParser;
+import com.thoughtworks.gauge.execution.parameters.parsers.types.PrimitiveParameterParser;
+import com.thoughtworks.gauge.execution.parameters.parsers.types.PrimitivesConverter;
+import gauge.messages.Spec.Parameter;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParameterParsingChainTest {
+
+    @Test
+    public void asksValueIndependentParsersOncePerTypeAndKind() throws Exception {
+        CountingParser upperCase = new CountingParser(false);
+        ParameterParsingChain chain = new ParameterParsingChain(Arrays.asList(upperCase, new PrimitiveParameterParser(new PrimitivesConverter())));
+
+        assertEquals(1, chain.parse(int.class, parameter("1", Parameter.ParameterType.Static)));
+        assertEquals(2, chain.parse(int.class, parameter("2", Parameter.ParameterType.Static)));
+        assertEquals(3, chain.parse(int.class, parameter("3", Parameter.ParameterType.Dynamic)));
+        assertEquals("A", chain.parse(CharSequence.class, parameter("a", Parameter.ParameterType.Static)));
+        assertEquals("B", chain.parse(CharSequence.class, parameter("b", Parameter.ParameterType.Static)));
+        assertEquals("c", chain.parse(String.class, parameter("c", Parameter.ParameterType.Static)));
+
+        assertEquals(4, upperCase.canParseCalls);
+    }
+
+    @Test
+    public void walksTheChainPerArgumentFromValueDependentParsers() throws Exception {
+        CountingParser upperCase = new CountingParser(true);
+        ParameterParsingChain chain = new ParameterParsingChain(Arrays.asList(new EnumParameterParser(), upperCase));
+
+        assertEquals("A", chain.parse(CharSequence.class, parameter("a", Parameter.ParameterType.Static)));
+        assertEquals("B", chain.parse(CharSequence.class, parameter("b", Parameter.ParameterType.Static)));
+
+        assertEquals(2, upperCase.canParseCalls);
+    }
+
+    @Test
+    public void asksCustomParsersForEveryArgument() throws Exception {
+        ParameterParsingChain chain = new ParameterParsingChain(Arrays.asList(new HashTagParser(), new PrimitiveParameterParser(new PrimitivesConverter())));
+
+        assertEquals(7, chain.parse(int.class, parameter("7", Parameter.ParameterType.Static)));
+        assertEquals(42, chain.parse(int.class, parameter("#answer", Parameter.ParameterType.Static)));
+        assertEquals(8, chain.parse(int.class, parameter("8", Parameter.ParameterType.Static)));
+    }
+
+    @Test
+    public void asksCustomParsersThatOptInOncePerTypeAndKind() throws Exception {
+        HashTagParser hashTags = new HashTagParser() {
+            @Override
+            public boolean isValueDependent() {
+                return false;
+            }
+        };
+        ParameterParsingChain chain = new ParameterParsingChain(Arrays.asList(hashTags, new PrimitiveParameterParser(new PrimitivesConverter())));
+
+        assertEquals(7, chain.parse(int.class, parameter("7", Parameter.ParameterType.Static)));
+        assertEquals(8, chain.parse(int.class, parameter("8", Parameter.ParameterType.Static)));
+
+        assertEquals(1, hashTags.canParseCalls);
+    }
+
+    private Parameter parameter(String value, Parameter.ParameterType kind) {
+        return Parameter.newBuilder().setValue(value).setParameterType(kind).build();
+    }
+
+    // Resolves #answer to 42, and leaves plain numbers to the primitive parser
+    private static class HashTagParser extends CustomParameterParser<Integer> {
+        private int canParseCalls;
+
+        @Override
+        public boolean canParse(Class<?> parameterType, Parameter parameter) {
+            canParseCalls++;
+            return parameterType.equals(int.class) && parameter.getValue().startsWith("#");
+        }
+
+        @Override
+        protected Integer customParse(Class<?> parameterType, Parameter parameter) {
+            return 42;
+        }
+    }
+
+    private static class CountingParser implements ParameterParser {
+        private final boolean valueDependent;
+        private int canParseCalls;
+
+        CountingParser(boolean valueDependent) {
+            this.valueDependent = valueDependent;
+        }
+
+        @Override
+        public boolean canParse(Class<?> parameterType, Parameter parameter) {
+            canParseCalls++;
+            return parameterType.equals(CharSequence.class);
+        }
+
+        @Override
+        public Object parse(Class<?> parameterType, Parameter parameter) {
+            return parameter.getValue().toUpperCase();
+        }
+
+        @Override
+        public boolean isValueDependent() {
+            return valueDependent;
+        }
+    }
+}
@@ -6,10 +6,16 @@ import static com.thoughtworks.gauge.execution.ParameterTestHelpers.nonTablePara
 import static com.thoughtworks.gauge.test.TestValues.ANY_TYPE;
 import static com.thoughtworks.gauge.test.TestValues.SPECIFIC_VALUE;
 import static org.hamcrest.CoreMatchers.theInstance;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.thoughtworks.gauge.Table;
+import com.thoughtworks.gauge.execution.parameters.ParsingException;
 import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParser;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,6 +23,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.List;
+
 import com.thoughtworks.gauge.execution.parameters.parsers.converters.TableConverter;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -48,4 +57,50 @@ public class TableParameterParserTest {
 
         assertThat(tableParameterParser.parse(ANY_TYPE, aTableParameter()), theInstance(SPECIFIC_VALUE));
     }
+
+    @Test
+    public void whenATableParameterIsParsedAsAnArrayThenEachRowIsMapped() throws Exception {
+        Table table = new Table(Arrays.asList("name", "count"));
+        table.addRow(Arrays.asList("a", "1"));
+        table.addRow(Arrays.asList("b", "2"));
+        when(tableConverterMock.convert(aTableParameter())).thenReturn(table);
+
+        Row[] rows = (Row[]) tableParameterParser.parse(Row[].class, aTableParameter());
+
+        assertEquals(2, rows.length);
+        assertEquals("b", rows[1].name);
+        assertEquals(2, rows[1].count);
+    }
+
+    @Test
+    public void whenATableParameterIsParsedAsAnArrayOfATypeWithoutFieldsThenItFailsClearly() throws Exception {
+        Table table = new Table(Arrays.asList("name"));
+        table.addRow(Arrays.asList("a"));
+        when(tableConverterMock.convert(aTableParameter())).thenReturn(table);
+
+        try {
+            tableParameterParser.parse(Object[].class, aTableParameter());
+            fail("expected rows of Object to be rejected");
+        } catch (ParsingException e) {
+            assertTrue(e.getExecutionResult().getErrorMessage().contains("java.lang.Object: it has no fields or record components"));
+        }
+    }
+
+    @Test
+    public void rowTypesAreFoundForListsOfRows() throws Exception {
+        assertEquals(Row.class, TableParameterParser.rowTypeOf(getClass().getMethod("rows", List.class).getGenericParameterTypes()[0]));
+        assertNull(TableParameterParser.rowTypeOf(getClass().getMethod("names", List.class).getGenericParameterTypes()[0]));
+        assertNull(TableParameterParser.rowTypeOf(Row[].class));
+    }
+
+    public void rows(List<Row> rows) {
+    }
+
+    public void names(List<String> names) {
+    }
+
+    public static class Row {
+        private String name;
+        private int count;
+    }
 }
@@ -17,10 +17,14 @@ package com.thoughtworks.gauge.hook;
 
 import com.thoughtworks.gauge.BeforeScenario;
 import com.thoughtworks.gauge.Operator;
+import com.thoughtworks.gauge.tag.TagIds;
 import junit.framework.TestCase;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -46,6 +50,59 @@ public class HookTest extends TestCase {
         assertEquals("foobar", hooksList.get(3).getMethod().getName());
     }
 
+    public void testHookAppliesToMatchingTags() throws NoSuchMethodException {
+        Hook untagged = new Hook(TestHook.class.getMethod("foo"), new String[0], Operator.AND);
+        Hook all = new Hook(TestHook.class.getMethod("bar"), new String[]{"hello", "world"}, Operator.AND);
+        Hook any = new Hook(TestHook.class.getMethod("foobar"), new String[]{"hello", "world"}, Operator.OR);
+
+        BitSet hello = tags("hello");
+        assertTrue(untagged.appliesTo(hello));
+        assertFalse(all.appliesTo(hello));
+        assertTrue(any.appliesTo(hello));
+
+        BitSet helloWorld = tags("world", "hello", "other");
+        assertTrue(all.appliesTo(helloWorld));
+        assertTrue(any.appliesTo(helloWorld));
+
+        assertFalse(any.appliesTo(tags("other")));
+    }
+
+    public void testHookListSelectsApplicableHooksOncePerTagSet() throws NoSuchMethodException {
+        Hook untagged = new Hook(TestHook.class.getMethod("foo"), new String[0], Operator.AND);
+        Hook tagged = new Hook(TestHook.class.getMethod("foobar"), new String[]{"hello"}, Operator.AND);
+        HookList hooks = new HookList(new Hook[]{untagged, tagged});
+
+        List<Hook> forHello = hooks.applicableTo(tags("hello"));
+        assertEquals(Arrays.asList(untagged, tagged), forHello);
+        assertSame(forHello, hooks.applicableTo(tags("hello")));
+        assertEquals(Collections.singletonList(untagged), hooks.applicableTo(tags("other")));
+    }
+
+    public void testHookListRemembersABoundedNumberOfTagSets() throws NoSuchMethodException {
+        Hook tagged = new Hook(TestHook.class.getMethod("foobar"), new String[]{"hello"}, Operator.AND);
+        HookList hooks = new HookList(new Hook[]{tagged});
+        for (int i = 0; i < HookList.MAX_CACHED_TAG_SETS; i++) {
+            hooks.applicableTo(tags("hello", "tag" + i));
+        }
+
+        List<Hook> forMore = hooks.applicableTo(tags("hello", "more"));
+
+        assertEquals(Collections.singletonList(tagged), forMore);
+        assertNotSame(forMore, hooks.applicableTo(tags("hello", "more")));
+        assertSame(hooks.applicableTo(tags("hello", "tag0")), hooks.applicableTo(tags("hello", "tag0")));
+    }
+
+    public void testHookListWithoutTaggedHooksAppliesToAllTags() throws NoSuchMethodException {
+        HookList hooks = new HookList(new Hook[]{new Hook(TestHook.class.getMethod("foo"))});
+
+        assertFalse(hooks.hasTaggedHooks());
+        assertSame(hooks, hooks.applicableTo(tags("hello")));
+    }
+
+    private BitSet tags(String... tags) {
+        return TagIds.bitsOf(Arrays.asList(tags));
+    }
+
     private class TestHook {
         @BeforeScenario
         public void foo() {
@@ -0,0 +1,45 @@
+package com.thoughtworks.gauge.processor;
+
+import com.thoughtworks.gauge.ClassInstanceManager;
+import com.thoughtworks.gauge.Gauge;
+import gauge.messages.Messages;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class StepExecutionStartingProcessorTest {
+
+    private Messages.Message message;
+    private StepExecutionStartingProcessor processor;
+
+    @Before
+    public void setUp() {
+        message = Messages.Message.newBuilder()
+                .setMessageType(Messages.Message.MessageType.StepExecutionStarting)
+                .setMessageId(7L)
+                .setStepExecutionStartingRequest(Messages.StepExecutionStartingRequest.newBuilder())
+                .build();
+        processor = new StepExecutionStartingProcessor(new ClassInstanceManager());
+    }
+
+    @Test
+    public void shouldAnswerWithPassedWhenThereIsNothingToRun() {
+        assertSame(IMessageProcessor.PASSED, processor.process(message));
+    }
+
+    @Test
+    public void shouldReportPendingMessages() {
+        Gauge.writeMessage("pending");
+
+        Messages.Message response = processor.process(message);
+
+        assertNotSame(IMessageProcessor.PASSED, response);
+        assertEquals(7L, response.getMessageId());
+        assertEquals(Collections.singletonList("pending"), response.getExecutionStatusResponse().getExecutionResult().getMessageList());
+    }
+}
@@ -148,6 +148,24 @@ public class HooksRegistryTest extends TestCase {
         assertEquals("afterScenario", sortedPostHooks.get(2).getMethod().getName());
     }
 
+    public void testLookupsReturnTheSameSortedListUntilHooksChange() throws NoSuchMethodException {
+        HooksRegistry.addBeforeScenarioHooks(createSet(TestHooksImplClass.class.getMethod("beforeScenario")));
+
+        List<Hook> hooks = HooksRegistry.getBeforeScenarioHooks();
+        assertSame(hooks, HooksRegistry.getBeforeScenarioHooks());
+
+        HooksRegistry.addBeforeScenarioHooks(createSet(TestHooksImplClass.class.getMethod("aBeforeScenario")));
+        assertEquals(1, hooks.size());
+        assertEquals("aBeforeScenario", HooksRegistry.getBeforeScenarioHooks().get(0).getMethod().getName());
+    }
+
+    public void testHookTypesWithoutHooksAreEmpty() throws Exception {
+        assertTrue(HooksRegistry.getBeforeStepHooks().isEmpty());
+        assertTrue(HooksRegistry.getAfterSuiteHooks().isEmpty());
+        assertTrue(HooksRegistry.getBeforeClassStepsHooksOfClass(TestHooksImplClass.class).isEmpty());
+        assertSame(HooksRegistry.getBeforeStepHooks(), HooksRegistry.getAfterSuiteHooks());
+    }
+
     private Set<Method> hooksMethodList(List<Hook> hooks) {
         HashSet<Method> methods = new HashSet<Method>();
         for (Hook hook : hooks) {
@@ -0,0 +1,225 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.scan;
+
+import com.thoughtworks.gauge.ClassInitializer;
+import com.thoughtworks.gauge.Step;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.scanners.MethodAnnotationsScanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ConfigurationBuilder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClasspathScanCacheTest {
+    private static final String STEPS = "package sample;\n"
+            + "public class Steps {\n"
+            + "    @com.thoughtworks.gauge.Step(\"a step\")\n"
+            + "    public void step() {}\n"
+            + "}\n";
+    private static final String INITIALIZER = "package other;\n"
+            + "public class Initializer implements com.thoughtworks.gauge.ClassInitializer {\n"
+            + "    public Object initialize(Class<?> type) { return null; }\n"
+            + "}\n";
+
+    private File workDir;
+    private File classesDir;
+    private File cacheFile;
+    private URL url;
+
+    @Before
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("gauge-scan-cache").toFile();
+        classesDir = new File(workDir, "classes");
+        cacheFile = new File(new File(workDir, "tmp"), ClasspathScanCache.FILE_NAME);
+        url = classesDir.toURI().toURL();
+        compile(source("sample/Steps.java", STEPS), source("other/Initializer.java", INITIALIZER));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void shouldReuseScanResultsOfUnchangedClasspathEntries() {
+        ClasspathScanCache cache = ClasspathScanCache.load(cacheFile);
+        assertNull(cache.get(url, ""));
+        cache.put(url, "", scan());
+        cache.save();
+
+        Store store = emptyStore();
+        ClasspathScanCache.load(cacheFile).get(url, "").addTo(store, name -> true);
+
+        assertEquals(scan().get(GaugeIndex.METHOD_ANNOTATIONS), store.get(GaugeIndex.METHOD_ANNOTATIONS));
+        assertEquals(Collections.singleton("sample.Steps.step()"), store.get(GaugeIndex.METHOD_ANNOTATIONS).get(Step.class.getName()));
+        assertEquals(Collections.singleton("other.Initializer"), store.get(GaugeIndex.SUB_TYPES).get(ClassInitializer.class.getName()));
+    }
+
+    @Test
+    public void shouldApplyTheInputFilterToCachedResults() {
+        saveScan();
+
+        Store store = emptyStore();
+        ClasspathScanCache.load(cacheFile).get(url, "").addTo(store, name -> name.startsWith("sample"));
+
+        assertEquals(1, store.get(GaugeIndex.METHOD_ANNOTATIONS).size());
+        assertTrue(store.get(GaugeIndex.SUB_TYPES).get(ClassInitializer.class.getName()).isEmpty());
+    }
+
+    @Test
+    public void shouldReuseFilteredScanResultsOnlyForTheSamePackages() {
+        ClasspathScanCache cache = ClasspathScanCache.load(cacheFile);
+        cache.put(url, "sample", scan());
+        cache.save();
+
+        assertNotNull(ClasspathScanCache.load(cacheFile).get(url, "sample"));
+        assertNull(ClasspathScanCache.load(cacheFile).get(url, "other"));
+        assertNull(ClasspathScanCache.load(cacheFile).get(url, ""));
+    }
+
+    @Test
+    public void shouldReuseUnfilteredScanResultsForAnyPackages() {
+        saveScan();
+
+        assertNotNull(ClasspathScanCache.load(cacheFile).get(url, "sample"));
+        assertNotNull(ClasspathScanCache.load(cacheFile).get(url, "other"));
+    }
+
+    @Test
+    public void shouldScanChangedClasspathEntriesAgain() {
+        saveScan();
+
+        compile(source("sample/More.java", "package sample;\npublic class More {}\n"));
+
+        assertNull(ClasspathScanCache.load(cacheFile).get(url, ""));
+    }
+
+    @Test
+    public void shouldReuseRebuiltButIdenticalClasspathEntries() {
+        saveScan();
+        File classFile = new File(classesDir, "sample/Steps.class");
+        assertTrue(classFile.setLastModified(classFile.lastModified() + 60000));
+
+        ClasspathScanCache cache = ClasspathScanCache.load(cacheFile);
+        assertNotNull(cache.get(url, ""));
+        cache.save();
+
+        assertNotNull(ClasspathScanCache.load(cacheFile).get(url, ""));
+    }
+
+    @Test
+    public void shouldScanJarsWithAnotherSizeOrModificationTimeAgain() throws IOException {
+        File jar = new File(workDir, "steps.jar");
+        Files.write(jar.toPath(), new byte[]{1, 2, 3});
+        URL jarUrl = jar.toURI().toURL();
+        ClasspathScanCache cache = ClasspathScanCache.load(cacheFile);
+        cache.put(jarUrl, "", emptyStore());
+        cache.save();
+        assertNotNull(ClasspathScanCache.load(cacheFile).get(jarUrl, ""));
+
+        assertTrue(jar.setLastModified(jar.lastModified() + 60000));
+
+        assertNull(ClasspathScanCache.load(cacheFile).get(jarUrl, ""));
+    }
+
+    @Test
+    public void shouldKeepTheCacheInTheConfiguredDirectoryOfTheProject() {
+        ClasspathScanCache cache = ClasspathScanCache.forProject(workDir.getPath(), "tmp");
+        cache.put(url, "", scan());
+        cache.save();
+
+        assertTrue(cacheFile.isFile());
+        assertNotNull(ClasspathScanCache.forProject(workDir.getPath(), "tmp").get(url, ""));
+    }
+
+    @Test
+    public void shouldCacheNothingUnlessConfigured() {
+        ClasspathScanCache cache = ClasspathScanCache.forProject(workDir.getPath(), null);
+        cache.put(url, "", scan()).addTo(emptyStore(), name -> true);
+        cache.save();
+
+        assertNull(cache.get(url, ""));
+        assertEquals(Collections.singletonList(classesDir), Arrays.asList(workDir.listFiles()));
+    }
+
+    @Test
+    public void shouldIgnoreUnreadableCacheFiles() throws IOException {
+        Files.createDirectories(cacheFile.getParentFile().toPath());
+        Files.write(cacheFile.toPath(), new byte[]{1, 2, 3});
+
+        assertNull(ClasspathScanCache.load(cacheFile).get(url, ""));
+    }
+
+    private void saveScan() {
+        ClasspathScanCache cache = ClasspathScanCache.load(cacheFile);
+        cache.put(url, "", scan());
+        cache.save();
+    }
+
+    private Store scan() {
+        return new Reflections(new ConfigurationBuilder()
+                .setScanners(new MethodAnnotationsScanner(), new SubTypesScanner())
+                .addUrls(url)).getStore();
+    }
+
+    private Store emptyStore() {
+        Store store = new Reflections(new ConfigurationBuilder()).getStore();
+        store.getOrCreate(GaugeIndex.METHOD_ANNOTATIONS);
+        store.getOrCreate(GaugeIndex.SUB_TYPES);
+        return store;
+    }
+
+    private void compile(JavaFileObject... sources) {
+        classesDir.mkdirs();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> options = Arrays.asList("-proc:none", "-classpath", System.getProperty("java.class.path"), "-d", classesDir.getPath());
+        assertTrue(compiler.getTask(null, null, null, options, null, Arrays.asList(sources)).call());
+    }
+
+    private JavaFileObject source(String path, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -0,0 +1,225 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+package com.thoughtworks.gauge.scan;
+
+import com.google.common.collect.Sets;
+import com.thoughtworks.gauge.AfterStep;
+import com.thoughtworks.gauge.BeforeSuite;
+import com.thoughtworks.gauge.ClassInitializer;
+import com.thoughtworks.gauge.Step;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.scanners.MethodAnnotationsScanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ConfigurationBuilder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GaugeIndexProcessorTest {
+    private static final String STEPS = "package sample;\n"
+            + "import com.thoughtworks.gauge.*;\n"
+            + "public class Steps {\n"
+            + "    @Step({\"login as <user>\", \"sign\\tin as <user>\"})\n"
+            + "    public void login(String user, int[] codes) {}\n"
+            + "    @Step(\"add <items>\")\n"
+            + "    public <T extends Number> void add(java.util.List<T> items, T item) {}\n"
+            + "    @BeforeSuite\n"
+            + "    public void setUp() {}\n"
+            + "    public static class Nested {\n"
+            + "        @AfterStep\n"
+            + "        public void tearDown(ExecutionContext context) {}\n"
+            + "    }\n"
+            + "}\n";
+    private static final String INITIALIZERS = "package sample;\n"
+            + "public abstract class BaseInitializer implements com.thoughtworks.gauge.ClassInitializer {}\n";
+    private static final String INITIALIZER = "package sample;\n"
+            + "public class Initializer extends BaseInitializer {\n"
+            + "    public Object initialize(Class<?> type) { return null; }\n"
+            + "}\n";
+
+    private File classesDir;
+
+    @Before
+    public void setUp() throws IOException {
+        classesDir = Files.createTempDirectory("gauge-index").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(classesDir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void shouldIndexTheSameEntriesAsAClasspathScan() throws IOException {
+        compile(source("sample/Steps.java", STEPS), source("sample/BaseInitializer.java", INITIALIZERS), source("sample/Initializer.java", INITIALIZER));
+
+        Store scanned = scan();
+        Store indexed = indexed();
+
+        for (Class<?> annotation : Arrays.asList(Step.class, BeforeSuite.class, AfterStep.class)) {
+            assertEquals(methods(scanned, annotation), methods(indexed, annotation));
+        }
+        assertEquals(2, methods(indexed, Step.class).size());
+        assertEquals(Sets.newHashSet(scanned.getAll(GaugeIndex.SUB_TYPES, ClassInitializer.class.getName())),
+                Sets.newHashSet(indexed.getAll(GaugeIndex.SUB_TYPES, ClassInitializer.class.getName())));
+    }
+
+    @Test
+    public void shouldRecordStepTexts() throws IOException {
+        compile(source("sample/Steps.java", STEPS));
+
+        List<String[]> entries = GaugeIndex.read(Files.newInputStream(new File(classesDir, GaugeIndex.PATH).toPath()));
+
+        assertTrue(entries.stream().anyMatch(entry -> Arrays.equals(entry,
+                new String[]{"method", "sample.Steps", Step.class.getName(), "login(java.lang.String, int[])", "login as <user>", "sign\tin as <user>"})));
+    }
+
+    @Test
+    public void shouldKeepEntriesOfClassesNotRecompiled() throws IOException {
+        compile(source("sample/Steps.java", STEPS), source("sample/BaseInitializer.java", INITIALIZERS));
+        compile(source("sample/Initializer.java", INITIALIZER));
+
+        Store indexed = indexed();
+
+        assertEquals(2, methods(indexed, Step.class).size());
+        assertEquals(Sets.newHashSet("sample.BaseInitializer", "sample.Initializer"),
+                Sets.newHashSet(indexed.getAll(GaugeIndex.SUB_TYPES, ClassInitializer.class.getName())));
+    }
+
+    @Test
+    public void shouldSkipEntriesOfDeletedClasses() throws IOException {
+        compile(source("sample/Steps.java", STEPS), source("sample/BaseInitializer.java", INITIALIZERS));
+        assertTrue(new File(classesDir, "sample/Steps.class").delete());
+
+        Store indexed = indexed();
+
+        assertTrue(methods(indexed, Step.class).isEmpty());
+        assertFalse(indexed.get(GaugeIndex.SUB_TYPES).isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreIndexNotDescribingClassesCompiledWithoutProcessor() throws IOException {
+        compile(source("sample/Steps.java", STEPS));
+        assertNotNull(GaugeIndex.read(classesDir.toURI().toURL()));
+
+        compileWithoutProcessor(source("sample/Initializer.java", "package sample;\npublic class Initializer {}\n"));
+
+        assertNull(GaugeIndex.read(classesDir.toURI().toURL()));
+    }
+
+    @Test
+    public void shouldIgnoreIndexAfterRecompilingEarlierClassesWithoutProcessor() throws IOException {
+        compile(source("sample/Steps.java", STEPS), source("sample/BaseInitializer.java", INITIALIZERS));
+        compile(source("sample/Initializer.java", INITIALIZER));
+        assertNotNull(GaugeIndex.read(classesDir.toURI().toURL()));
+
+        File steps = new File(classesDir, "sample/Steps.class");
+        long lastModified = steps.lastModified();
+        compileWithoutProcessor(source("sample/Steps.java", "package sample;\npublic class Steps {}\n"));
+        assertTrue(steps.setLastModified(lastModified + 1000));
+
+        assertNull(GaugeIndex.read(classesDir.toURI().toURL()));
+    }
+
+    @Test
+    public void shouldNotDescribeClassesCompiledWithoutProcessorInALaterIndex() throws IOException {
+        compileWithoutProcessor(source("sample/Initializer.java", "package sample;\npublic class Initializer {}\n"));
+        compile(source("sample/Steps.java", STEPS));
+
+        assertNull(GaugeIndex.read(classesDir.toURI().toURL()));
+    }
+
+    @Test
+    public void shouldEscapeFields() {
+        List<String> fields = Arrays.asList("a\tb", "c\\d\ne", "");
+
+        assertArrayEquals(fields.toArray(), GaugeIndex.parse(GaugeIndex.format(fields)));
+    }
+
+    private void compile(JavaFileObject... sources) {
+        JavaCompiler.CompilationTask task = task(sources);
+        task.setProcessors(Collections.singletonList(new GaugeIndexProcessor()));
+        assertTrue(task.call());
+    }
+
+    private void compileWithoutProcessor(JavaFileObject... sources) {
+        JavaCompiler.CompilationTask task = task(sources);
+        task.setProcessors(Collections.emptyList());
+        assertTrue(task.call());
+    }
+
+    private JavaCompiler.CompilationTask task(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path") + File.pathSeparator + classesDir, "-d", classesDir.getPath());
+        return compiler.getTask(null, null, null, options, null, Arrays.asList(sources));
+    }
+
+    private JavaFileObject source(String path, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private Store scan() throws IOException {
+        return new Reflections(new ConfigurationBuilder()
+                .setScanners(new MethodAnnotationsScanner(), new SubTypesScanner())
+                .addUrls(classesDir.toURI().toURL())).getStore();
+    }
+
+    private Store indexed() throws IOException {
+        Store store = new Reflections(new ConfigurationBuilder()).getStore();
+        store.getOrCreate(GaugeIndex.METHOD_ANNOTATIONS);
+        store.getOrCreate(GaugeIndex.SUB_TYPES);
+        GaugeIndex index = GaugeIndex.read(classesDir.toURI().toURL());
+        assertNotNull(index);
+        index.addTo(store, name -> true);
+        return store;
+    }
+
+    private List<String> methods(Store store, Class<?> annotation) {
+        List<String> methods = new ArrayList<>(store.get(GaugeIndex.METHOD_ANNOTATIONS).get(annotation.getName()));
+        Collections.sort(methods);
+        return methods;
+    }
+}
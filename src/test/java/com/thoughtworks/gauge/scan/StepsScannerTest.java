@@ -0,0 +1,101 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.scan;
+
+import com.thoughtworks.gauge.Step;
+import com.thoughtworks.gauge.StepTextConformanceTest;
+import com.thoughtworks.gauge.StepTextConformanceTest.GaugeStepValue;
+import com.thoughtworks.gauge.StepValue;
+import com.thoughtworks.gauge.connection.GaugeConnection;
+import com.thoughtworks.gauge.connection.GaugeConnectionPool;
+import com.thoughtworks.gauge.connection.GaugeConnector;
+import com.thoughtworks.gauge.registry.StepRegistry;
+import org.junit.Test;
+import org.reflections.Reflections;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StepsScannerTest {
+
+    @Test
+    public void shouldAskGaugeOnlyForStepTextsOutsideTheLocalGrammar() throws Exception {
+        Map<String, StepValue> gaugeAnswers = new HashMap<>();
+        for (GaugeStepValue stepValue : StepTextConformanceTest.gaugeStepValues("gauge")) {
+            gaugeAnswers.put(stepValue.getStepText(), stepValue.getStepValue());
+        }
+        GaugeConnection connection = mock(GaugeConnection.class);
+        when(connection.getStepValueAsync(anyString(), anyBoolean()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(gaugeAnswers.get((String) invocation.getArguments()[0])));
+        GaugeConnectionPool pool = mock(GaugeConnectionPool.class);
+        when(pool.next()).thenReturn(connection);
+        GaugeConnector connector = mock(GaugeConnector.class);
+        when(connector.getGaugeApiConnectionPool(anyInt())).thenReturn(pool);
+        Method login = Steps.class.getMethod("login");
+        Method check = Steps.class.getMethod("check");
+        Reflections reflections = mock(Reflections.class);
+        when(reflections.getMethodsAnnotatedWith(Step.class)).thenReturn(new HashSet<>(Arrays.asList(login, check)));
+        StepRegistry registry = new StepRegistry();
+
+        new StepsScanner(connector, registry).scan(reflections);
+
+        assertEquals(login, registry.get("login as {}"));
+        assertEquals(check, registry.get("check {}"));
+        assertEquals(check, registry.get("type {}"));
+        assertTrue(registry.getAllStepAnnotationTexts().contains("type <a<b>c>"));
+        verify(connection, never()).getStepValueAsync("login as <user>", false);
+        verify(connection).getStepValueAsync("check <table:data.csv>", false);
+        verify(connection).getStepValueAsync("type \"a<b>c\"", false);
+        verify(pool).close();
+    }
+
+    @Test
+    public void shouldNotOpenConnectionsWhenAllStepTextsParseLocally() throws Exception {
+        GaugeConnector connector = mock(GaugeConnector.class);
+        Reflections reflections = mock(Reflections.class);
+        when(reflections.getMethodsAnnotatedWith(Step.class)).thenReturn(new HashSet<>(Arrays.asList(Steps.class.getMethod("login"))));
+        StepRegistry registry = new StepRegistry();
+
+        new StepsScanner(connector, registry).scan(reflections);
+
+        assertEquals(Steps.class.getMethod("login"), registry.get("login as {}"));
+        verify(connector, never()).getGaugeApiConnectionPool(anyInt());
+    }
+
+    public static class Steps {
+        @Step("login as <user>")
+        public void login() {
+        }
+
+        @Step({"check <table:data.csv>", "type \"a<b>c\""})
+        public void check() {
+        }
+    }
+}
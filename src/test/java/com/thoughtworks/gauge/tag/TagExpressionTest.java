@@ -0,0 +1,85 @@
+package com.thoughtworks.gauge.tag;
+
+import com.thoughtworks.gauge.Operator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TagExpressionTest {
+
+    @Test
+    public void shouldMatchSingleTag() {
+        TagExpression expression = TagExpression.parse("smoke");
+
+        assertTrue(expression.matches(tags("smoke", "fast")));
+        assertFalse(expression.matches(tags("fast")));
+    }
+
+    @Test
+    public void shouldApplyNotBeforeAndBeforeOr() {
+        TagExpression expression = TagExpression.parse("smoke & !slow | wip");
+
+        assertTrue(expression.matches(tags("smoke")));
+        assertFalse(expression.matches(tags("smoke", "slow")));
+        assertTrue(expression.matches(tags("slow", "wip")));
+        assertFalse(expression.matches(tags()));
+    }
+
+    @Test
+    public void shouldHonourParenthesesAndCommas() {
+        TagExpression expression = TagExpression.parse("!(slow | flaky), smoke");
+
+        assertTrue(expression.matches(tags("smoke")));
+        assertFalse(expression.matches(tags("smoke", "flaky")));
+        assertFalse(expression.matches(tags("fast")));
+    }
+
+    @Test
+    public void shouldAllowSpacesInsideTagNames() {
+        TagExpression expression = TagExpression.parse(" login page & !(slow test) ");
+
+        assertTrue(expression.matches(tags("login page")));
+        assertFalse(expression.matches(tags("login page", "slow test")));
+    }
+
+    @Test
+    public void shouldCombineAnnotationEntriesWithOperator() {
+        TagExpression all = TagExpression.of(Arrays.asList("a | b", "!c"), Operator.AND);
+        TagExpression any = TagExpression.of(Arrays.asList("a & b", "c"), Operator.OR);
+
+        assertTrue(all.matches(tags("b")));
+        assertFalse(all.matches(tags("b", "c")));
+        assertTrue(any.matches(tags("c")));
+        assertFalse(any.matches(tags("a")));
+        assertTrue(TagExpression.of(Collections.emptyList(), Operator.OR).matches(tags()));
+    }
+
+    @Test
+    public void shouldRejectInvalidExpressions() {
+        for (String invalid : new String[]{"a &", "(a | b", "a b)", "| a", "!", "a & & b"}) {
+            try {
+                TagExpression.parse(invalid);
+                fail("expected \"" + invalid + "\" to be rejected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid tag expression \"" + invalid + "\""));
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepExpressionText() {
+        assertEquals("a & !b", TagExpression.parse("a & !b").toString());
+        assertEquals("a | b", TagExpression.of(Arrays.asList("a", "b"), Operator.OR).toString());
+    }
+
+    private BitSet tags(String... tags) {
+        return TagIds.bitsOf(Arrays.asList(tags));
+    }
+}
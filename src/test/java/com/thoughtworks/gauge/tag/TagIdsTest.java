@@ -0,0 +1,50 @@
+package com.thoughtworks.gauge.tag;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TagIdsTest {
+
+    @Test
+    public void shouldReuseBitsOfTheSameSpecAndScenarioTags() {
+        List<String> specTags = TagIds.intern(Arrays.asList("smoke", "login"));
+        List<String> scenarioTags = TagIds.intern(Collections.singletonList("fast"));
+
+        BitSet bits = TagIds.bitsOf(specTags, scenarioTags);
+
+        assertSame(bits, TagIds.bitsOf(specTags, scenarioTags));
+        assertEquals(TagIds.bitsOf(Arrays.asList("smoke", "login", "fast")), bits);
+    }
+
+    @Test
+    public void shouldKeepTheLastBitsOfEachThread() throws InterruptedException {
+        List<String> specTags = TagIds.intern(Collections.singletonList("parallel"));
+        BitSet bits = TagIds.bitsOf(specTags, null);
+
+        Thread other = new Thread(() -> TagIds.bitsOf(TagIds.intern(Collections.singletonList("other")), null));
+        other.start();
+        other.join();
+
+        assertSame(bits, TagIds.bitsOf(specTags, null));
+    }
+
+    @Test
+    public void shouldComputeBitsOfOtherTags() {
+        List<String> specTags = TagIds.intern(Collections.singletonList("smoke"));
+        BitSet bits = TagIds.bitsOf(specTags, null);
+
+        BitSet otherBits = TagIds.bitsOf(specTags, TagIds.intern(Collections.singletonList("slow")));
+
+        assertNotSame(bits, otherBits);
+        assertEquals(TagIds.bitsOf(Collections.singletonList("smoke")), bits);
+        assertEquals(TagIds.bitsOf(Arrays.asList("smoke", "slow")), otherBits);
+    }
+}
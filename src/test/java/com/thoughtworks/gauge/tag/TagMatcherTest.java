@@ -0,0 +1,20 @@
+package com.thoughtworks.gauge.tag;
+
+import com.thoughtworks.gauge.Operator;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class TagMatcherTest extends TestCase {
+
+    public void testMatchingLikeHooks() throws Exception {
+        TagMatcher matcher = new TagMatcher();
+        assertTrue(matcher.isMatch(Arrays.asList("tag1", "tag2"), Operator.AND, Arrays.asList("tag1", "tag2", "tag3")));
+        assertFalse(matcher.isMatch(Arrays.asList("tag1", "tag2"), Operator.AND, Arrays.asList("tag1", "tag3")));
+        assertTrue(matcher.isMatch(Arrays.asList("tag1", "tag2"), Operator.OR, Arrays.asList("tag2")));
+        assertFalse(matcher.isMatch(Arrays.asList("tag1", "tag2"), Operator.OR, Arrays.asList("tag3")));
+        assertTrue(matcher.isMatch(new ArrayList<String>(), Operator.AND, Arrays.asList("tag1")));
+        assertTrue(matcher.isMatch(Arrays.asList("tag1 & !tag2"), Operator.AND, Arrays.asList("tag1")));
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright 2015 ThoughtWorks, Inc.
+
+// This file is part of Gauge-Java.
+
+// This program is free software.
+//
+// It is dual-licensed under:
+// 1) the GNU General Public License as published by the Free Software Foundation,
+// either version 3 of the License, or (at your option) any later version;
+// or
+// 2) the Eclipse Public License v1.0.
+//
+// You can redistribute it and/or modify it under the terms of either license.
+// We would then provide copied of each license in a separate .txt file with the name of the license as the title of the file.
+
+package com.thoughtworks.gauge.jfr;
+
+import com.thoughtworks.gauge.ClassInstanceManager;
+import com.thoughtworks.gauge.ExecutionContext;
+import com.thoughtworks.gauge.Operator;
+import com.thoughtworks.gauge.execution.HooksExecutor;
+import com.thoughtworks.gauge.execution.StepExecutionPlan;
+import com.thoughtworks.gauge.execution.parameters.ParametersExtractor;
+import com.thoughtworks.gauge.execution.parameters.parsers.base.ParameterParsingChain;
+import com.thoughtworks.gauge.hook.Hook;
+import gauge.messages.Messages;
+import gauge.messages.Spec;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class RunnerEventsTest extends TestCase {
+
+    public void testCreatesNoEventsWhenNotRecording() throws Exception {
+        assertTrue(RunnerEvents.isAvailable());
+        assertNull(RunnerEvents.beginStep());
+        assertNull(RunnerEvents.beginHook());
+        assertFalse(RunnerEvents.isDispatchEnabled());
+        RunnerEvents.commitStep(null, "step", false);
+    }
+
+    public void testRecordsStepParameterConversionAndHookEvents() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            Spec.Parameter number = Spec.Parameter.newBuilder().setValue("2").setParameterType(Spec.Parameter.ParameterType.Static).build();
+            Messages.ExecuteStepRequest request = Messages.ExecuteStepRequest.newBuilder().setParsedStepText("count {}").setActualStepText("count 2")
+                    .addParameters(number).build();
+            new StepExecutionPlan(Steps.class.getMethod("count", int.class))
+                    .execute(request, new ClassInstanceManager(), new ParametersExtractor(new ParameterParsingChain()));
+
+            Hook hook = new Hook(Steps.class.getMethod("failingHook"), new String[0], Operator.AND);
+            new HooksExecutor(Collections.singletonList(hook), new ExecutionContext(), new ClassInstanceManager()).execute();
+        });
+
+        RecordedEvent step = only(events, "gauge.StepExecution");
+        assertEquals("count 2", step.getString("stepText"));
+        assertFalse(step.getBoolean("failed"));
+
+        RecordedEvent conversion = only(events, "gauge.ParameterConversion");
+        assertEquals(1, conversion.getInt("parameterCount"));
+        assertFalse(conversion.getBoolean("failed"));
+
+        RecordedEvent hook = only(events, "gauge.HookExecution");
+        assertEquals(Steps.class.getName() + ".failingHook", hook.getString("hook"));
+        assertTrue(hook.getBoolean("failed"));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> named = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                named.add(event);
+            }
+        }
+        assertEquals(name, 1, named.size());
+        return named.get(0);
+    }
+
+    private static List<RecordedEvent> record(Action action) throws Exception {
+        Path file = Files.createTempFile("gauge-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("gauge.StepExecution").withThreshold(Duration.ZERO);
+            recording.enable("gauge.ParameterConversion").withThreshold(Duration.ZERO);
+            recording.enable("gauge.HookExecution").withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    public static class Steps {
+        public void count(int count) {
+        }
+
+        public void failingHook() {
+            throw new RuntimeException("hook failed");
+        }
+    }
+}